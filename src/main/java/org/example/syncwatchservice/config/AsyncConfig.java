@@ -0,0 +1,16 @@
+package org.example.syncwatchservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class AsyncConfig {
+
+    @Bean
+    public ExecutorService storageExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("storage-", 0).factory());
+    }
+}
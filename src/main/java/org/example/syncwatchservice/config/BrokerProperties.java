@@ -0,0 +1,42 @@
+package org.example.syncwatchservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.websocket.broker")
+public class BrokerProperties {
+
+    private Mode mode = Mode.SIMPLE;
+    private Relay relay = new Relay();
+
+    public enum Mode {
+        /**
+         * In-memory broker; subscriptions and broadcasts stay inside this instance.
+         */
+        SIMPLE,
+
+        /**
+         * Relays /topic and /queue to an external STOMP broker so several instances share subscribers.
+         */
+        RELAY
+    }
+
+    @Data
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+        private String virtualHost;
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        private Duration systemHeartbeatSend = Duration.ofSeconds(10);
+        private Duration systemHeartbeatReceive = Duration.ofSeconds(10);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private String userDestinationBroadcast = "/topic/unresolved-user-destination";
+        private String userRegistryBroadcast = "/topic/simp-user-registry";
+    }
+}
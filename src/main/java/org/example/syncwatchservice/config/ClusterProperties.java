@@ -0,0 +1,39 @@
+package org.example.syncwatchservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.cluster")
+public class ClusterProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Base URL other nodes use to reach this node, e.g. http://10.0.0.5:8082.
+     */
+    private String self;
+
+    /**
+     * Base URLs of the other cluster nodes; this node is always part of the ring.
+     */
+    private List<String> nodes = new ArrayList<>();
+
+    /**
+     * Shared secret every node sends to the others' {@code /internal} endpoints; requests without it are
+     * rejected. Required when clustering is enabled, best supplied through {@code APP_CLUSTER_SECRET}.
+     */
+    private String secret;
+
+    private int virtualNodes = 128;
+    private Duration requestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Threads forwarding room messages to their owner; a room always uses the same one.
+     */
+    private int forwardingLanes = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,59 @@
+package org.example.syncwatchservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Rejects calls to the node-to-node {@code /internal} endpoints that do not carry the shared cluster secret,
+ * which {@link org.example.syncwatchservice.service.ClusterClient} sends on every request.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "true")
+public class ClusterSecretFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Cluster-Secret";
+
+    private static final String INTERNAL_PREFIX = "/internal";
+
+    private final byte[] secret;
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    public ClusterSecretFilter(ClusterProperties properties) {
+        if (!StringUtils.hasText(properties.getSecret())) {
+            throw new IllegalStateException("app.cluster.secret must be set when clustering is enabled");
+        }
+        this.secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Decoded and stripped of ;parameters, so encoded variants of the path are covered as well.
+        return !pathHelper.getPathWithinApplication(request).startsWith(INTERNAL_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        if (presented == null || !MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejected {} {} from {} without a valid cluster secret",
+                    request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
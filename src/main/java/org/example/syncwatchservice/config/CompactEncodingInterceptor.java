@@ -0,0 +1,136 @@
+package org.example.syncwatchservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.service.CompactCodec;
+import org.example.syncwatchservice.service.UserHandles;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiates the compact wire format at STOMP CONNECT and swaps outbound JSON payloads for their compact
+ * form on sessions that asked for it. Clients that do not send the encoding header keep receiving JSON.
+ * <p>
+ * This instance goes on the inbound channel and {@link #outbound()} on the outbound one: client SEND frames
+ * are MESSAGE frames too, so the channel rather than the message type tells what gets encoded and counted.
+ */
+@Slf4j
+@Component
+public class CompactEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String ENCODING_HEADER = "x-sync-encoding";
+    public static final String COMPACT = "compact";
+    public static final String USER_ID_ATTRIBUTE = "syncUserId";
+    public static final String HANDLE_ATTRIBUTE = "syncUserHandle";
+    public static final String RECEIVED_AT_HEADER = "syncReceivedAt";
+
+    private final UserHandles userHandles;
+    private final Map<String, String> compactSessions = new ConcurrentHashMap<>();
+    private final DistributionSummary jsonBytes;
+    private final DistributionSummary compactBytes;
+    private final ChannelInterceptor outbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+            return type == SimpMessageType.MESSAGE ? encodeOutbound(message) : message;
+        }
+    };
+
+    public CompactEncodingInterceptor(UserHandles userHandles, MeterRegistry meterRegistry) {
+        this.userHandles = userHandles;
+        this.jsonBytes = outboundBytes(meterRegistry, "json");
+        this.compactBytes = outboundBytes(meterRegistry, COMPACT);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == SimpMessageType.CONNECT) {
+            negotiate(message);
+        } else if (type == SimpMessageType.DISCONNECT) {
+            disconnect(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        } else if (type == SimpMessageType.MESSAGE && isPing(message)) {
+            // Stamped on the socket thread, before the frame waits for an inbound pool thread.
+            return MessageBuilder.fromMessage(message)
+                    .setHeader(RECEIVED_AT_HEADER, System.currentTimeMillis())
+                    .build();
+        }
+        return message;
+    }
+
+    public ChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    private void negotiate(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (accessor.getCommand() != StompCommand.CONNECT && accessor.getCommand() != StompCommand.STOMP) {
+            return;
+        }
+
+        Principal user = accessor.getUser();
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (!COMPACT.equals(accessor.getFirstNativeHeader(ENCODING_HEADER)) || user == null || attributes == null) {
+            return;
+        }
+
+        String userId = user.getName();
+
+        int handle = userHandles.acquire(userId);
+        attributes.put(USER_ID_ATTRIBUTE, userId);
+        attributes.put(HANDLE_ATTRIBUTE, handle);
+        compactSessions.put(accessor.getSessionId(), userId);
+        log.debug("Session {} negotiated compact encoding for user {} with handle {}",
+                accessor.getSessionId(), userId, handle);
+    }
+
+    private void disconnect(String sessionId) {
+        String userId = sessionId != null ? compactSessions.remove(sessionId) : null;
+        if (userId != null) {
+            userHandles.release(userId);
+        }
+    }
+
+    private Message<?> encodeOutbound(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Object compact = message.getHeaders().get(CompactCodec.PAYLOAD_HEADER);
+
+        if (!(compact instanceof byte[] compactPayload) || sessionId == null || !compactSessions.containsKey(sessionId)) {
+            if (message.getPayload() instanceof byte[] payload) {
+                jsonBytes.record(payload.length);
+            }
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.removeHeader(CompactCodec.PAYLOAD_HEADER);
+        compactBytes.record(compactPayload.length);
+        return MessageBuilder.createMessage(compactPayload, accessor.getMessageHeaders());
+    }
+
+    private static boolean isPing(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination != null && destination.endsWith("/ping");
+    }
+
+    private static DistributionSummary outboundBytes(MeterRegistry meterRegistry, String encoding) {
+        return DistributionSummary.builder("ws.outbound.payload.bytes")
+                .baseUnit("bytes")
+                .tag("encoding", encoding)
+                .register(meterRegistry);
+    }
+}
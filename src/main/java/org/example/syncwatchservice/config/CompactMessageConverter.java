@@ -0,0 +1,45 @@
+package org.example.syncwatchservice.config;
+
+import org.example.syncwatchservice.service.CompactCodec;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+
+/**
+ * Decodes binary inbound frames from compact sessions. Outbound frames are encoded up front by
+ * {@link org.example.syncwatchservice.service.FrameSender}, so this converter never writes.
+ */
+public class CompactMessageConverter extends AbstractMessageConverter {
+
+    private final CompactCodec compactCodec;
+
+    public CompactMessageConverter(CompactCodec compactCodec) {
+        super(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        this.compactCodec = compactCodec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return compactCodec.supports(clazz);
+    }
+
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        return false;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        String userId = attributes != null ? (String) attributes.get(CompactEncodingInterceptor.USER_ID_ATTRIBUTE) : null;
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return compactCodec.decode(payload, destination, targetClass, userId);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.syncwatchservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "app.journal")
+public class JournalProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Directory holding journal segments and snapshots; created on startup.
+     */
+    private String directory = "data/journal";
+
+    /**
+     * Size each memory-mapped segment is preallocated to before the writer rolls to the next one.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Entries buffered between room shards and the writer. Shards never wait on it: when it is full the entry
+     * is dropped, counted in {@code journal.dropped} and an early snapshot is taken to cover it, or the one
+     * already under way is run once more after it finishes.
+     */
+    private int queueCapacity = 65536;
+}
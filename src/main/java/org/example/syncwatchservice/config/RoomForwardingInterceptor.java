@@ -0,0 +1,61 @@
+package org.example.syncwatchservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.syncwatchservice.message.ForwardedMessage;
+import org.example.syncwatchservice.service.ClusterClient;
+import org.example.syncwatchservice.service.RoomRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Forwards room commands sent over this node's sockets to the node owning the room. Forwarding goes through
+ * the cluster client's per-room lane so commands from one node keep their order without blocking the inbound
+ * channel or a room shard; pings stay local since they measure this hop.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "true")
+public class RoomForwardingInterceptor implements ChannelInterceptor {
+
+    private static final String ROOM_PREFIX = "/app/room/";
+
+    private final RoomRegistry roomRegistry;
+    private final ClusterClient clusterClient;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(ROOM_PREFIX) || destination.endsWith("/ping")) {
+            return message;
+        }
+
+        int end = destination.indexOf('/', ROOM_PREFIX.length());
+        String roomId = end > 0 ? destination.substring(ROOM_PREFIX.length(), end) : destination.substring(ROOM_PREFIX.length());
+        Optional<String> owner = roomRegistry.ownerOf(roomId);
+        if (owner.isEmpty() || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        MimeType contentType = SimpMessageHeaderAccessor.getContentType(message.getHeaders());
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        String userId = attributes != null ? (String) attributes.get(CompactEncodingInterceptor.USER_ID_ATTRIBUTE) : null;
+
+        ForwardedMessage forwarded = new ForwardedMessage(destination,
+                contentType != null ? contentType.toString() : null, payload, userId);
+        clusterClient.forwardMessageAsync(owner.get(), roomId, forwarded);
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.syncwatchservice.config;
+
+import org.example.syncwatchservice.model.User;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes the user of the HTTP session the principal of the WebSocket session, so STOMP frames carry an identity
+ * the server assigned rather than one the client claims. Pair with {@link #sessionUserInterceptor()}, which
+ * copies the user into the handshake attributes.
+ */
+public class SessionUserHandshakeHandler extends DefaultHandshakeHandler {
+
+    /**
+     * HTTP session attribute holding the {@link User} the pages were rendered for.
+     */
+    public static final String USER_ATTRIBUTE = "user";
+
+    public static HttpSessionHandshakeInterceptor sessionUserInterceptor() {
+        return new HttpSessionHandshakeInterceptor(List.of(USER_ATTRIBUTE));
+    }
+
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                      Map<String, Object> attributes) {
+        return attributes.get(USER_ATTRIBUTE) instanceof User user ? new UserPrincipal(user.getId()) : null;
+    }
+
+    record UserPrincipal(String name) implements Principal {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
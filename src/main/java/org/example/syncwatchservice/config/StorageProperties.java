@@ -0,0 +1,62 @@
+package org.example.syncwatchservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.storage")
+public class StorageProperties {
+
+    private int pageSize = 100;
+    private int prefetchWindow = 4;
+    private Cache cache = new Cache();
+    private Pool pool = new Pool();
+
+    @Data
+    public static class Cache {
+        private CacheSpec movies = new CacheSpec(Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofSeconds(10), 1);
+        private CacheSpec series = new CacheSpec(Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofSeconds(10), 1);
+        private CacheSpec seasons = new CacheSpec(Duration.ofMinutes(2), Duration.ofMinutes(30), Duration.ofSeconds(10), 1_000);
+        private CacheSpec episodes = new CacheSpec(Duration.ofMinutes(2), Duration.ofMinutes(30), Duration.ofSeconds(10), 10_000);
+        private CacheSpec episodeIndex = new CacheSpec(Duration.ofMinutes(2), Duration.ofMinutes(30), Duration.ofSeconds(10), 1_000);
+    }
+
+    @Data
+    public static class Pool {
+        private int maxTotal = 100;
+        private int maxPerRoute = 50;
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(30);
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+        private Duration idleEviction = Duration.ofSeconds(30);
+        private Duration timeToLive = Duration.ofMinutes(5);
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+        private boolean compression = true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+        /**
+         * Age after which the next read triggers a background refresh while the stale value is still served.
+         */
+        private Duration refreshAfter;
+
+        /**
+         * Hard upper bound on how long an entry may be served without a successful refresh.
+         */
+        private Duration expireAfter;
+
+        /**
+         * Lifetime of an empty result, which is cached too but only briefly.
+         */
+        private Duration emptyExpireAfter = Duration.ofSeconds(10);
+
+        private long maximumSize;
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.syncwatchservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers outbound frames of one session strictly in publish order and collapses state frames ({@code /sync},
+ * {@code /users}) that are still waiting: a newer frame for the same destination replaces the held one instead of
+ * queueing behind it.
+ * <p>
+ * Only one frame per session is on the executor at a time; the rest wait here and are written by the pool
+ * thread that finished the previous one. Presence deltas and pongs are queued without affecting collapsing; any
+ * other frame is a discrete event and closes the open slots of its session, so state frames published after it
+ * are delivered after it.
+ */
+@Slf4j
+@Component
+public class SupersedingOutboundInterceptor implements ExecutorChannelInterceptor {
+
+    private final Map<String, SessionQueue> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingFrames = new AtomicInteger();
+    private final Counter supersededFrames;
+
+    public SupersedingOutboundInterceptor(MeterRegistry meterRegistry) {
+        Gauge.builder("ws.outbound.pending", pendingFrames, AtomicInteger::get)
+                .register(meterRegistry);
+        this.supersededFrames = Counter.builder("ws.outbound.dropped")
+                .tag("reason", "superseded")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = sessionIdOf(message);
+        if (sessionId == null) {
+            return message;
+        }
+
+        // Registered on connect; a missing entry means the session already disconnected.
+        SessionQueue session = sessions.get(sessionId);
+        if (session == null) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+
+        synchronized (session) {
+            if (!session.inFlight) {
+                session.inFlight = true;
+                pendingFrames.incrementAndGet();
+                return message;
+            }
+
+            if (!isStateDestination(destination)) {
+                if (!isPassThrough(destination)) {
+                    session.open.clear();
+                }
+                session.held.add(new Slot(message));
+                pendingFrames.incrementAndGet();
+                return null;
+            }
+
+            Slot slot = session.open.get(destination);
+            if (slot != null) {
+                slot.message = message;
+                supersededFrames.increment();
+                return null;
+            }
+
+            slot = new Slot(message);
+            session.open.put(destination, slot);
+            session.held.add(slot);
+            pendingFrames.incrementAndGet();
+            return null;
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        String sessionId = sessionIdOf(message);
+        SessionQueue session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null) {
+            return;
+        }
+        pendingFrames.decrementAndGet();
+
+        while (true) {
+            Message<?> next;
+            synchronized (session) {
+                Slot slot = session.held.poll();
+                if (slot == null || session.closed) {
+                    session.inFlight = false;
+                    return;
+                }
+                session.open.values().remove(slot);
+                next = slot.message;
+            }
+
+            try {
+                handler.handleMessage(next);
+            } catch (Exception e) {
+                log.debug("Failed to deliver held frame to session {}", sessionId, e);
+            } finally {
+                pendingFrames.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The outbound pool rejected the frame that was about to go in flight. Nothing will call
+     * {@link #afterMessageHandled} for it, so the frames held behind it are dropped to unblock the session.
+     */
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        String sessionId = sessionIdOf(message);
+        SessionQueue session = ex != null && sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            pendingFrames.addAndGet(-1 - session.held.size());
+            session.held.clear();
+            session.open.clear();
+            session.inFlight = false;
+        }
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.put(sessionId, new SessionQueue());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionQueue session = sessions.remove(event.getSessionId());
+        if (session != null) {
+            synchronized (session) {
+                session.closed = true;
+                pendingFrames.addAndGet(-session.held.size() - (session.inFlight ? 1 : 0));
+                session.held.clear();
+                session.open.clear();
+            }
+        }
+    }
+
+    private static boolean isStateDestination(String destination) {
+        return destination != null && (destination.endsWith("/sync") || destination.endsWith("/users"));
+    }
+
+    // Periodic frames whose relative order to state frames does not matter.
+    private static boolean isPassThrough(String destination) {
+        return destination != null && (destination.endsWith("/presence") || destination.startsWith("/queue/pong"));
+    }
+
+    private static String sessionIdOf(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+
+    // Guarded by its own monitor.
+    private static class SessionQueue {
+        final ArrayDeque<Slot> held = new ArrayDeque<>();
+        final Map<String, Slot> open = new HashMap<>();
+        boolean inFlight;
+        boolean closed;
+    }
+
+    private static class Slot {
+        Message<?> message;
+
+        Slot(Message<?> message) {
+            this.message = message;
+        }
+    }
+}
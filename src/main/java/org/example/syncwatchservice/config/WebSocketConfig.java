@@ -1,26 +1,146 @@
 package org.example.syncwatchservice.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.service.CompactCodec;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final CompactEncodingInterceptor compactEncodingInterceptor;
+    private final CompactCodec compactCodec;
+    private final BrokerProperties brokerProperties;
+    private final ObjectProvider<RoomForwardingInterceptor> roomForwardingInterceptor;
+    private final SupersedingOutboundInterceptor supersedingOutboundInterceptor;
+    private final WebSocketProperties webSocketProperties;
+    private final MeterRegistry meterRegistry;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (brokerProperties.getMode() == BrokerProperties.Mode.RELAY) {
+            configureRelay(config, brokerProperties.getRelay());
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
 
+    private void configureRelay(MessageBrokerRegistry config, BrokerProperties.Relay relay) {
+        log.info("Relaying /topic and /queue to STOMP broker at {}:{}", relay.getHost(), relay.getPort());
+
+        int connectTimeout = (int) relay.getConnectTimeout().toMillis();
+        ReactorNettyTcpClient<byte[]> tcpClient = new ReactorNettyTcpClient<>(
+                client -> client
+                        .host(relay.getHost())
+                        .port(relay.getPort())
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                        .option(ChannelOption.TCP_NODELAY, true)
+                        .option(ChannelOption.SO_KEEPALIVE, true),
+                new StompReactorNettyCodec());
+
+        config.enableStompBrokerRelay("/topic", "/queue")
+                .setTcpClient(tcpClient)
+                .setVirtualHost(relay.getVirtualHost())
+                .setClientLogin(relay.getClientLogin())
+                .setClientPasscode(relay.getClientPasscode())
+                .setSystemLogin(relay.getSystemLogin())
+                .setSystemPasscode(relay.getSystemPasscode())
+                .setSystemHeartbeatSendInterval(relay.getSystemHeartbeatSend().toMillis())
+                .setSystemHeartbeatReceiveInterval(relay.getSystemHeartbeatReceive().toMillis())
+                .setUserDestinationBroadcast(relay.getUserDestinationBroadcast())
+                .setUserRegistryBroadcast(relay.getUserRegistryBroadcast());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.setPreserveReceiveOrder(true);
+
         registry.addEndpoint("/ws")
+                .setHandshakeHandler(new SessionUserHandshakeHandler())
+                .addInterceptors(SessionUserHandshakeHandler.sessionUserInterceptor())
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+
+        // SockJS only carries text frames, so the compact binary encoding needs a plain WebSocket endpoint.
+        registry.addEndpoint("/ws-native")
+                .setHandshakeHandler(new SessionUserHandshakeHandler())
+                .addInterceptors(SessionUserHandshakeHandler.sessionUserInterceptor())
+                .setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutor("ws-inbound-", webSocketProperties.getInbound(), meterRegistry));
+        registration.interceptors(compactEncodingInterceptor);
+        roomForwardingInterceptor.ifAvailable(registration::interceptors);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Per-session ordering is done by the superseding interceptor rather than setPreservePublishOrder, which
+        // would queue frames before any interceptor sees them and leave nothing to collapse.
+        registration.executor(channelExecutor("ws-outbound-", webSocketProperties.getOutbound(), meterRegistry));
+        registration.interceptors(compactEncodingInterceptor.outbound(), supersedingOutboundInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        WebSocketProperties.Transport transport = webSocketProperties.getTransport();
+        registration.setSendTimeLimit((int) transport.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) transport.getSendBufferSizeLimit().toBytes())
+                .setMessageSizeLimit((int) transport.getMessageSizeLimit().toBytes())
+                .setTimeToFirstMessage((int) transport.getTimeToFirstMessage().toMillis());
+    }
+
+    static ThreadPoolTaskExecutor channelExecutor(String namePrefix, WebSocketProperties.ChannelPool pool,
+                                                  MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(namePrefix);
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(Math.max(pool.getCorePoolSize(), pool.getMaxPoolSize()));
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setAllowCoreThreadTimeOut(true);
+        // Rejecting keeps a saturated pool from running frames inline on a room shard, the broker or a
+        // socket reader thread, where they would overtake frames that are already queued.
+        Counter rejected = Counter.builder("ws.channel.rejected")
+                .tag("channel", namePrefix.substring(0, namePrefix.length() - 1))
+                .register(meterRegistry);
+        executor.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Channel executor " + namePrefix + " is saturated");
+        });
+        if (pool.isVirtualThreads()) {
+            executor.setThreadFactory(Thread.ofVirtual().name(namePrefix, 0).factory());
+        }
+        return executor;
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new CompactMessageConverter(compactCodec));
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package org.example.syncwatchservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.websocket")
+public class WebSocketProperties {
+
+    private ChannelPool inbound = new ChannelPool();
+    private ChannelPool outbound = new ChannelPool();
+    private Transport transport = new Transport();
+
+    @Data
+    public static class ChannelPool {
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4;
+
+        /**
+         * Bounded so a burst cannot grow the heap; messages beyond it are rejected and counted in
+         * {@code ws.channel.rejected}.
+         */
+        private int queueCapacity = 10_000;
+
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private boolean virtualThreads = false;
+    }
+
+    @Data
+    public static class Transport {
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+        private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+        private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+        private Duration timeToFirstMessage = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.syncwatchservice.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.syncwatchservice.model.CatalogPage;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Series;
+import org.example.syncwatchservice.service.CatalogService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+@RequiredArgsConstructor
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    @GetMapping("/api/catalog/movies")
+    @ResponseBody
+    public CatalogPage<Movie> movies(@RequestParam(defaultValue = "") String q,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(required = false) Integer size) {
+        return catalogService.findMovies(q, page, size);
+    }
+
+    @GetMapping("/api/catalog/series")
+    @ResponseBody
+    public CatalogPage<Series> series(@RequestParam(defaultValue = "") String q,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(required = false) Integer size) {
+        return catalogService.findSeries(q, page, size);
+    }
+
+    @GetMapping("/catalog/movies")
+    public String movieCards(@RequestParam(defaultValue = "") String q,
+                             @RequestParam(defaultValue = "0") int page,
+                             @RequestParam(required = false) Integer size,
+                             Model model,
+                             HttpServletResponse response) {
+        CatalogPage<Movie> movies = catalogService.findMovies(q, page, size);
+        addPageHeaders(response, movies);
+
+        model.addAttribute("movies", movies.getItems());
+        model.addAttribute("movieRoomCounts", catalogService.getMovieRoomCounts(movies.getItems()));
+        model.addAttribute("query", q);
+
+        return "fragments/catalog :: movieCards";
+    }
+
+    @GetMapping("/catalog/series")
+    public String seriesCards(@RequestParam(defaultValue = "") String q,
+                              @RequestParam(defaultValue = "0") int page,
+                              @RequestParam(required = false) Integer size,
+                              Model model,
+                              HttpServletResponse response) {
+        CatalogPage<Series> series = catalogService.findSeries(q, page, size);
+        addPageHeaders(response, series);
+
+        model.addAttribute("series", series.getItems());
+        model.addAttribute("seriesRoomCounts", catalogService.getSeriesRoomCounts(series.getItems()));
+        model.addAttribute("query", q);
+
+        return "fragments/catalog :: seriesCards";
+    }
+
+    private void addPageHeaders(HttpServletResponse response, CatalogPage<?> page) {
+        response.setHeader("X-Catalog-Total", String.valueOf(page.getTotalItems()));
+        response.setHeader("X-Catalog-Has-Next", String.valueOf(page.isHasNext()));
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.syncwatchservice.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.CompactEncodingInterceptor;
+import org.example.syncwatchservice.message.ForwardedMessage;
+import org.example.syncwatchservice.message.PresenceReport;
+import org.example.syncwatchservice.message.RoomCommand;
+import org.example.syncwatchservice.model.LobbySnapshot;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.service.IdleReaper;
+import org.example.syncwatchservice.service.LobbyService;
+import org.example.syncwatchservice.service.RoomCommands;
+import org.example.syncwatchservice.service.RoomExecutor;
+import org.example.syncwatchservice.service.RoomRegistry;
+import org.example.syncwatchservice.service.RoomService;
+import org.example.syncwatchservice.service.SessionPresence;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-to-node endpoints used by the cluster. {@link org.example.syncwatchservice.config.ClusterSecretFilter}
+ * rejects every call that does not carry the shared cluster secret.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal")
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "true")
+public class InternalRoomController {
+
+    private static final String FORWARDED_SESSION_ID = "cluster-forwarded";
+
+    private final RoomRegistry roomRegistry;
+    private final RoomService roomService;
+    private final RoomCommands roomCommands;
+    private final RoomExecutor roomExecutor;
+    private final IdleReaper idleReaper;
+    private final LobbyService lobbyService;
+    private final SessionPresence sessionPresence;
+    private final MessageChannel clientInboundChannel;
+
+    public InternalRoomController(RoomRegistry roomRegistry,
+                                  RoomService roomService,
+                                  RoomCommands roomCommands,
+                                  RoomExecutor roomExecutor,
+                                  IdleReaper idleReaper,
+                                  LobbyService lobbyService,
+                                  SessionPresence sessionPresence,
+                                  @Qualifier("clientInboundChannel") MessageChannel clientInboundChannel) {
+        this.roomRegistry = roomRegistry;
+        this.roomService = roomService;
+        this.roomCommands = roomCommands;
+        this.roomExecutor = roomExecutor;
+        this.idleReaper = idleReaper;
+        this.lobbyService = lobbyService;
+        this.sessionPresence = sessionPresence;
+        this.clientInboundChannel = clientInboundChannel;
+    }
+
+    @GetMapping("/cluster/ping")
+    public ResponseEntity<Void> ping() {
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/rooms")
+    public Collection<Room> localRooms() {
+        return roomRegistry.localRooms();
+    }
+
+    @GetMapping("/lobby")
+    public LobbySnapshot lobby() {
+        return lobbyService.snapshot(roomRegistry::localRooms);
+    }
+
+    @GetMapping("/rooms/{roomId}")
+    public ResponseEntity<Room> room(@PathVariable String roomId) {
+        return ResponseEntity.of(roomRegistry.get(roomId));
+    }
+
+    @PostMapping("/rooms/{roomId}/commands")
+    public boolean command(@PathVariable String roomId, @RequestBody RoomCommand command) {
+        // Never forward a second time: during a membership change two nodes may briefly disagree on the owner.
+        if (!roomRegistry.isLocal(roomId)) {
+            log.warn("Rejecting forwarded {} for room {} owned elsewhere", command.type(), roomId);
+            return false;
+        }
+        return roomCommands.executeLocally(roomId, command);
+    }
+
+    @PostMapping("/rooms/{roomId}/messages")
+    public ResponseEntity<Void> message(@PathVariable String roomId, @RequestBody ForwardedMessage message) {
+        if (!roomRegistry.isLocal(roomId)) {
+            log.warn("Rejecting forwarded {} for room {} owned elsewhere", message.destination(), roomId);
+            return ResponseEntity.status(409).build();
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(message.destination());
+        accessor.setContentType(message.contentType() != null
+                ? MimeType.valueOf(message.contentType())
+                : MimeTypeUtils.APPLICATION_JSON);
+        accessor.setSessionId(FORWARDED_SESSION_ID);
+
+        Map<String, Object> attributes = new ConcurrentHashMap<>();
+        if (message.userId() != null) {
+            attributes.put(CompactEncodingInterceptor.USER_ID_ATTRIBUTE, message.userId());
+        }
+        accessor.setSessionAttributes(attributes);
+
+        clientInboundChannel.send(MessageBuilder.createMessage(message.payload(), accessor.getMessageHeaders()));
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/presence")
+    public ResponseEntity<Void> presence(@RequestBody List<PresenceReport> reports) {
+        for (PresenceReport report : reports) {
+            if (roomRegistry.isLocal(report.roomId())) {
+                sessionPresence.applyLocally(report.roomId(), report.userId(), report.connected());
+            }
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/rooms/handoff")
+    public ResponseEntity<Void> handoff(@RequestBody List<Room> rooms) {
+        for (Room room : rooms) {
+            roomExecutor.execute(room.getId(), () -> {
+                roomService.adoptRoom(room);
+                idleReaper.roomAdopted(room);
+            });
+        }
+        return ResponseEntity.ok().build();
+    }
+}
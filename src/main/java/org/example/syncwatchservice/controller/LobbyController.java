@@ -0,0 +1,48 @@
+package org.example.syncwatchservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.syncwatchservice.model.LobbySnapshot;
+import org.example.syncwatchservice.service.ClusterClient;
+import org.example.syncwatchservice.service.ConsistentHashRoomRegistry;
+import org.example.syncwatchservice.service.LobbyService;
+import org.example.syncwatchservice.service.RoomRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+
+@Controller
+@RequiredArgsConstructor
+public class LobbyController {
+
+    private final LobbyService lobbyService;
+    private final RoomRegistry roomRegistry;
+    private final ObjectProvider<ConsistentHashRoomRegistry> clusterRegistry;
+    private final ObjectProvider<ClusterClient> clusterClient;
+
+    /**
+     * Every node contributes its own rooms together with its own sequence, matching the per-node batches.
+     */
+    @SubscribeMapping("/lobby")
+    public LobbySnapshot lobbySnapshot() {
+        LobbySnapshot snapshot = lobbyService.snapshot(roomRegistry::localRooms);
+        ConsistentHashRoomRegistry cluster = clusterRegistry.getIfAvailable();
+        ClusterClient client = clusterClient.getIfAvailable();
+        if (cluster == null || client == null) {
+            return snapshot;
+        }
+
+        snapshot.setRooms(new ArrayList<>(snapshot.getRooms()));
+        for (String node : cluster.members()) {
+            if (snapshot.getSequences().containsKey(node)) {
+                continue;
+            }
+            client.fetchLobby(node).ifPresent(remote -> {
+                snapshot.getSequences().putAll(remote.getSequences());
+                snapshot.getRooms().addAll(remote.getRooms());
+            });
+        }
+        return snapshot;
+    }
+}
@@ -2,15 +2,21 @@ package org.example.syncwatchservice.controller;
 
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import org.example.syncwatchservice.config.SessionUserHandshakeHandler;
+import org.example.syncwatchservice.model.CatalogPage;
 import org.example.syncwatchservice.model.Episode;
 import org.example.syncwatchservice.model.Movie;
 import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.RoomSummary;
 import org.example.syncwatchservice.model.Season;
 import org.example.syncwatchservice.model.Series;
 import org.example.syncwatchservice.model.User;
-import org.example.syncwatchservice.service.MovieService;
+import org.example.syncwatchservice.service.CatalogService;
+import org.example.syncwatchservice.service.LobbyService;
+import org.example.syncwatchservice.service.RoomCommands;
+import org.example.syncwatchservice.service.RoomRegistry;
 import org.example.syncwatchservice.service.RoomService;
-import org.example.syncwatchservice.service.SeriesService;
+import org.example.syncwatchservice.service.SeriesEpisodeIndexService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,42 +30,42 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
 public class MainController {
 
-    private final MovieService movieService;
-    private final SeriesService seriesService;
+    private final CatalogService catalogService;
     private final RoomService roomService;
-
+    private final SeriesEpisodeIndexService seriesEpisodeIndexService;
+    private final RoomCommands roomCommands;
+    private final LobbyService lobbyService;
+    private final RoomRegistry roomRegistry;
+
+    /**
+     * Only this node's rooms are rendered; the page subscribes to the lobby right away and its snapshot fills in
+     * the rooms owned by other nodes, so the request never waits on them.
+     */
     @GetMapping("/")
     public String home(Model model, HttpSession session) {
         User currentUser = getCurrentUser(session);
 
-        List<Movie> movies = movieService.getAllMovies();
-        List<Series> series = seriesService.getAllSeries();
-        List<Room> rooms = roomService.getAllRooms();
-
-        Map<String, Long> movieRoomCounts = movies.stream()
-                .collect(Collectors.toMap(
-                        movie -> "movie_" + movie.getId(),
-                        movie -> roomService.getRoomsByMovieId(movie.getId().toString()).stream().count()
-                ));
+        CompletableFuture<CatalogPage<Movie>> moviesFuture = catalogService.findMoviesAsync(null, 0, null);
+        CompletableFuture<CatalogPage<Series>> seriesFuture = catalogService.findSeriesAsync(null, 0, null);
+        List<RoomSummary> rooms = lobbyService.snapshot(roomRegistry::localRooms).getRooms();
 
-        Map<String, Long> seriesRoomCounts = series.stream()
-                .collect(Collectors.toMap(
-                        s -> "series_" + s.getId(),
-                        s -> roomService.getRoomsBySeriesId(s.getId()).stream().count()
-                ));
+        CatalogPage<Movie> movies = moviesFuture.join();
+        CatalogPage<Series> series = seriesFuture.join();
 
-        model.addAttribute("movies", movies);
-        model.addAttribute("series", series);
+        model.addAttribute("moviesPage", movies);
+        model.addAttribute("seriesPage", series);
+        model.addAttribute("movies", movies.getItems());
+        model.addAttribute("series", series.getItems());
         model.addAttribute("rooms", rooms);
         model.addAttribute("currentUser", currentUser);
-        model.addAttribute("movieRoomCounts", movieRoomCounts);
-        model.addAttribute("seriesRoomCounts", seriesRoomCounts);
+        model.addAttribute("movieRoomCounts", catalogService.getMovieRoomCounts(movies.getItems()));
+        model.addAttribute("seriesRoomCounts", catalogService.getSeriesRoomCounts(series.getItems()));
 
         return "index";
     }
@@ -73,7 +79,7 @@ public class MainController {
 
         try {
             Room room = roomService.createMovieRoom(roomName, movieId, currentUser.getId());
-            roomService.joinRoom(room.getId(), currentUser);
+            roomCommands.join(room.getId(), currentUser);
             return "redirect:/room/" + room.getId();
         } catch (IllegalArgumentException e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -90,7 +96,7 @@ public class MainController {
 
         try {
             Room room = roomService.createSeriesRoom(roomName, seriesId, currentUser.getId());
-            roomService.joinRoom(room.getId(), currentUser);
+            roomCommands.join(room.getId(), currentUser);
             return "redirect:/room/" + room.getId();
         } catch (IllegalArgumentException e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -102,24 +108,24 @@ public class MainController {
     public String room(@PathVariable String roomId, Model model, HttpSession session) {
         User currentUser = getCurrentUser(session);
 
-        Room room = roomService.getRoomById(roomId).orElse(null);
+        Room room = roomService.findRoom(roomId).orElse(null);
         if (room == null) {
             model.addAttribute("error", "Room not found");
             return "error";
         }
 
-        if (!room.getUsers().contains(currentUser)) {
-            roomService.joinRoom(roomId, currentUser);
+        if (room.getUser(currentUser.getId()) == null) {
+            roomCommands.join(roomId, currentUser);
         }
 
         model.addAttribute("room", room);
         model.addAttribute("currentUser", currentUser);
-        model.addAttribute("isHost", roomService.isHost(roomId, currentUser.getId()));
+        model.addAttribute("isHost", currentUser.getId().equals(room.getHostId()));
         model.addAttribute("streamUrl", room.getStreamUrl());
 
         if (room.getRoomType() == Room.RoomType.SERIES) {
-            List<Episode> availableEpisodes = roomService.getAvailableEpisodes(roomId);
-            List<Season> seasons = seriesService.getSeasonsBySeries(room.getSeries().getId());
+            List<Episode> availableEpisodes = seriesEpisodeIndexService.getEpisodes(room.getSeries().getId());
+            List<Season> seasons = seriesEpisodeIndexService.getSeasons(room.getSeries().getId());
 
             model.addAttribute("availableEpisodes", availableEpisodes);
             model.addAttribute("seasons", seasons);
@@ -133,7 +139,7 @@ public class MainController {
     public String joinRoom(@PathVariable String roomId, HttpSession session) {
         User currentUser = getCurrentUser(session);
 
-        if (!roomService.joinRoom(roomId, currentUser)) {
+        if (!roomCommands.join(roomId, currentUser)) {
             return "redirect:/?error=room-not-found";
         }
 
@@ -143,7 +149,7 @@ public class MainController {
     @PostMapping("/leave-room/{roomId}")
     public String leaveRoom(@PathVariable String roomId, HttpSession session) {
         User currentUser = getCurrentUser(session);
-        roomService.leaveRoom(roomId, currentUser.getId());
+        roomCommands.leave(roomId, currentUser.getId());
         return "redirect:/";
     }
 
@@ -153,13 +159,13 @@ public class MainController {
                                              @RequestParam Long episodeId,
                                              HttpSession session) {
         User currentUser = getCurrentUser(session);
-        boolean success = roomService.switchEpisode(roomId, episodeId, currentUser.getId());
+        boolean success = roomCommands.switchEpisode(roomId, episodeId, currentUser.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", success);
 
         if (success) {
-            Room room = roomService.getRoomById(roomId).orElse(null);
+            Room room = roomService.findRoom(roomId).orElse(null);
             if (room != null && room.getCurrentEpisode() != null) {
                 response.put("episode", room.getCurrentEpisode());
                 response.put("streamUrl", room.getStreamUrl());
@@ -173,13 +179,13 @@ public class MainController {
     @ResponseBody
     public Map<String, Object> nextEpisode(@PathVariable String roomId, HttpSession session) {
         User currentUser = getCurrentUser(session);
-        boolean success = roomService.switchToNextEpisode(roomId, currentUser.getId());
+        boolean success = roomCommands.nextEpisode(roomId, currentUser.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", success);
 
         if (success) {
-            Room room = roomService.getRoomById(roomId).orElse(null);
+            Room room = roomService.findRoom(roomId).orElse(null);
             if (room != null && room.getCurrentEpisode() != null) {
                 response.put("episode", room.getCurrentEpisode());
                 response.put("streamUrl", room.getStreamUrl());
@@ -193,13 +199,13 @@ public class MainController {
     @ResponseBody
     public Map<String, Object> previousEpisode(@PathVariable String roomId, HttpSession session) {
         User currentUser = getCurrentUser(session);
-        boolean success = roomService.switchToPreviousEpisode(roomId, currentUser.getId());
+        boolean success = roomCommands.previousEpisode(roomId, currentUser.getId());
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", success);
 
         if (success) {
-            Room room = roomService.getRoomById(roomId).orElse(null);
+            Room room = roomService.findRoom(roomId).orElse(null);
             if (room != null && room.getCurrentEpisode() != null) {
                 response.put("episode", room.getCurrentEpisode());
                 response.put("streamUrl", room.getStreamUrl());
@@ -220,7 +226,7 @@ public class MainController {
     public String setUsername(@RequestParam String username, HttpSession session) {
         User currentUser = getCurrentUser(session);
         currentUser.setUsername(username);
-        session.setAttribute("user", currentUser);
+        session.setAttribute(SessionUserHandshakeHandler.USER_ATTRIBUTE, currentUser);
         return "redirect:/";
     }
 
@@ -250,10 +256,10 @@ public class MainController {
     }
 
     private User getCurrentUser(HttpSession session) {
-        User user = (User) session.getAttribute("user");
+        User user = (User) session.getAttribute(SessionUserHandshakeHandler.USER_ATTRIBUTE);
         if (user == null) {
             user = new User(UUID.randomUUID().toString(), "Guest" + System.currentTimeMillis() % 1000);
-            session.setAttribute("user", user);
+            session.setAttribute(SessionUserHandshakeHandler.USER_ATTRIBUTE, user);
         }
         return user;
     }
@@ -0,0 +1,38 @@
+package org.example.syncwatchservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.syncwatchservice.model.CommandLog;
+import org.example.syncwatchservice.service.RoomRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Exposes the recent command log of a room for debugging sync complaints. Only rooms owned by this node keep a
+ * log, so in a cluster the request has to reach the owner.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/rooms/{roomId}/commands")
+public class RoomCommandLogController {
+
+    private final RoomRegistry roomRegistry;
+
+    @GetMapping
+    public ResponseEntity<List<CommandLog.Entry>> dump(@PathVariable String roomId) {
+        return roomRegistry.get(roomId)
+                .map(room -> ResponseEntity.ok(room.getCommandLog().entries()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/replay")
+    public ResponseEntity<List<CommandLog.ReplayStep>> replay(@PathVariable String roomId) {
+        return roomRegistry.get(roomId)
+                .map(room -> ResponseEntity.ok(room.getCommandLog().replay()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,384 +2,315 @@ package org.example.syncwatchservice.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.CompactEncodingInterceptor;
+import org.example.syncwatchservice.message.EpisodeChangedFrame;
+import org.example.syncwatchservice.message.EpisodeCommand;
+import org.example.syncwatchservice.message.EpisodesFrame;
+import org.example.syncwatchservice.message.ErrorFrame;
+import org.example.syncwatchservice.message.PingCommand;
+import org.example.syncwatchservice.message.PlaybackCommand;
+import org.example.syncwatchservice.message.PongFrame;
+import org.example.syncwatchservice.message.QualityCommand;
+import org.example.syncwatchservice.message.QualityFrame;
+import org.example.syncwatchservice.message.RoomCommand;
+import org.example.syncwatchservice.message.RoomInfoFrame;
+import org.example.syncwatchservice.message.RoomStateFrame;
+import org.example.syncwatchservice.message.SessionFrame;
+import org.example.syncwatchservice.message.SyncFrame;
+import org.example.syncwatchservice.message.UserCommand;
+import org.example.syncwatchservice.message.UserLeftFrame;
+import org.example.syncwatchservice.model.CommandLog;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.example.syncwatchservice.service.FrameSender;
+import org.example.syncwatchservice.service.IdleReaper;
+import org.example.syncwatchservice.service.PresenceAggregator;
+import org.example.syncwatchservice.service.RoomCommands;
+import org.example.syncwatchservice.service.RoomExecutor;
 import org.example.syncwatchservice.service.RoomService;
+import org.example.syncwatchservice.service.SessionPresence;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class WebSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final FrameSender frameSender;
     private final RoomService roomService;
-
-    private final Map<String, LastAction> lastActions = new ConcurrentHashMap<>();
-
-    private static final long DEBOUNCE_TIME = 500;
-
-    private static class LastAction {
-        final String action;
-        final double currentTime;
-        final String userId;
-        final long timestamp;
-
-        LastAction(String action, double currentTime, String userId, long timestamp) {
-            this.action = action;
-            this.currentTime = currentTime;
-            this.userId = userId;
-            this.timestamp = timestamp;
+    private final PresenceAggregator presenceAggregator;
+    private final RoomExecutor roomExecutor;
+    private final RoomCommands roomCommands;
+    private final IdleReaper idleReaper;
+    private final SessionPresence sessionPresence;
+
+    @SubscribeMapping("/session")
+    public SessionFrame session(SimpMessageHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes == null) {
+            return new SessionFrame("json", 0);
         }
+        Object handle = attributes.get(CompactEncodingInterceptor.HANDLE_ATTRIBUTE);
+        return handle instanceof Integer userHandle
+                ? new SessionFrame(CompactEncodingInterceptor.COMPACT, userHandle)
+                : new SessionFrame("json", 0);
     }
 
     @MessageMapping("/room/{roomId}/play")
-    public void handlePlay(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        Double currentTime = ((Number) payload.get("currentTime")).doubleValue();
-
-        log.info("Play action in room {} by user {} at time {}", roomId, userId, currentTime);
-
-        if (shouldIgnoreAction(roomId, "play", currentTime, userId)) {
-            log.debug("Ignoring duplicate play action from user {} at time {}", userId, currentTime);
-            return;
-        }
-
-        roomService.updateRoomState(roomId, currentTime, true, userId);
-        roomService.updateAllUsersTime(roomId, currentTime);
-
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/sync", Map.of(
-                "action", "play",
-                "currentTime", currentTime,
-                "userId", userId,
-                "timestamp", System.currentTimeMillis()
-        ));
-
-        updateRoomUsers(roomId);
+    public void handlePlay(@DestinationVariable String roomId, @Payload PlaybackCommand command) {
+        roomExecutor.execute(roomId, () -> applyPlayback(roomId, "play", true, command));
     }
 
     @MessageMapping("/room/{roomId}/pause")
-    public void handlePause(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        Double currentTime = ((Number) payload.get("currentTime")).doubleValue();
-
-        log.info("Pause action in room {} by user {} at time {}", roomId, userId, currentTime);
-
-        if (shouldIgnoreAction(roomId, "pause", currentTime, userId)) {
-            log.debug("Ignoring duplicate pause action from user {} at time {}", userId, currentTime);
-            return;
-        }
-
-        roomService.updateRoomState(roomId, currentTime, false, userId);
-        roomService.updateAllUsersTime(roomId, currentTime);
-
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/sync", Map.of(
-                "action", "pause",
-                "currentTime", currentTime,
-                "userId", userId,
-                "timestamp", System.currentTimeMillis()
-        ));
-
-        updateRoomUsers(roomId);
+    public void handlePause(@DestinationVariable String roomId, @Payload PlaybackCommand command) {
+        roomExecutor.execute(roomId, () -> applyPlayback(roomId, "pause", false, command));
     }
 
     @MessageMapping("/room/{roomId}/seek")
-    public void handleSeek(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        Double currentTime = ((Number) payload.get("currentTime")).doubleValue();
-
-        log.info("Seek action in room {} by user {} to time {}", roomId, userId, currentTime);
-
-        if (shouldIgnoreAction(roomId, "seek", currentTime, userId)) {
-            log.debug("Ignoring duplicate seek action from user {} at time {}", userId, currentTime);
-            return;
-        }
-
-        roomService.updateRoomState(roomId, currentTime, false, userId);
-        roomService.updateAllUsersTime(roomId, currentTime);
-
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/sync", Map.of(
-                "action", "seek",
-                "currentTime", currentTime,
-                "userId", userId,
-                "timestamp", System.currentTimeMillis()
-        ));
-
-        updateRoomUsers(roomId);
+    public void handleSeek(@DestinationVariable String roomId, @Payload PlaybackCommand command) {
+        roomExecutor.execute(roomId, () -> applyPlayback(roomId, "seek", false, command));
     }
 
     @MessageMapping("/room/{roomId}/timeUpdate")
-    public void handleTimeUpdate(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        Double currentTime = ((Number) payload.get("currentTime")).doubleValue();
-
-        roomService.updateUserTime(roomId, userId, currentTime);
-        updateRoomUsers(roomId);
+    public void handleTimeUpdate(@DestinationVariable String roomId, @Payload PlaybackCommand command) {
+        // Applied on the inbound thread: it touches only the sender's own fields, the reaper and the aggregator,
+        // so it needs no ordering against room commands and is not worth a task on the shard.
+        User user = roomService.updateUserTime(roomId, command.userId(), command.currentTime());
+        if (user != null) {
+            idleReaper.userSeen(roomId, user);
+            presenceAggregator.userChanged(roomId, user.getId());
+        }
     }
 
     @MessageMapping("/room/{roomId}/join")
-    public void handleJoin(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        log.info("User {} joined room {} via WebSocket", userId, roomId);
-
-        updateRoomUsers(roomId);
-
-        roomService.getRoomById(roomId).ifPresent(room -> {
-            messagingTemplate.convertAndSendToUser(
-                    userId,
-                    "/queue/room/" + roomId + "/state",
-                    Map.of(
-                            "currentTime", room.getCurrentTime(),
-                            "isPlaying", room.isPlaying(),
-                            "lastActionUserId", room.getLastActionUserId() != null ? room.getLastActionUserId() : "",
-                            "streamUrl", room.getStreamUrl() != null ? room.getStreamUrl() : "",
-                            "roomType", room.getRoomType().name(),
-                            "currentEpisodeId", room.getCurrentEpisodeId() != null ? room.getCurrentEpisodeId() : 0
-                    )
-            );
+    public void handleJoin(@DestinationVariable String roomId, @Payload UserCommand command) {
+        roomExecutor.execute(roomId, () -> {
+            String userId = command.userId();
+            log.info("User {} joined room {} via WebSocket", userId, roomId);
+            idleReaper.userSeen(roomId, userId);
+
+            updateRoomUsers(roomId);
+
+            roomService.getRoomById(roomId).ifPresent(room -> {
+                long now = System.currentTimeMillis();
+                frameSender.sendToUser(userId, "/queue/room/" + roomId + "/state", new RoomStateFrame(
+                        room.getPositionAt(now),
+                        now,
+                        room.getPlaybackRate(),
+                        room.isPlaying(),
+                        room.getLastActionUserId() != null ? room.getLastActionUserId() : "",
+                        room.getStreamUrl() != null ? room.getStreamUrl() : "",
+                        room.getRoomType().name(),
+                        room.getCurrentEpisodeId() != null ? room.getCurrentEpisodeId() : 0
+                ));
+            });
         });
     }
 
     @MessageMapping("/room/{roomId}/leave")
-    public void handleLeave(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        log.info("User {} left room {} via WebSocket", userId, roomId);
+    public void handleLeave(@DestinationVariable String roomId, @Payload UserCommand command) {
+        roomExecutor.execute(roomId, () -> {
+            String userId = command.userId();
+            log.info("User {} left room {} via WebSocket", userId, roomId);
 
-        roomService.leaveRoom(roomId, userId);
-        updateRoomUsers(roomId);
+            idleReaper.userLeft(roomId, userId);
+            roomService.leaveRoom(roomId, userId);
+            updateRoomUsers(roomId);
 
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/userLeft", Map.of(
-                "userId", userId
-        ));
+            frameSender.send("/topic/room/" + roomId + "/userLeft", new UserLeftFrame(userId));
+        });
     }
 
     @MessageMapping("/room/{roomId}/switchEpisode")
-    public void handleSwitchEpisode(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        Long episodeId = ((Number) payload.get("episodeId")).longValue();
+    public void handleSwitchEpisode(@DestinationVariable String roomId, @Payload EpisodeCommand command) {
+        String userId = command.userId();
+        Long episodeId = command.episodeId();
 
         log.info("Switch episode action in room {} by user {} to episode {}", roomId, userId, episodeId);
 
-        if (!roomService.isHost(roomId, userId)) {
-            log.warn("User {} is not host of room {}, cannot switch episode", userId, roomId);
-            messagingTemplate.convertAndSendToUser(userId, "/queue/error", Map.of(
-                    "error", "Only host can switch episodes"
-            ));
-            return;
-        }
-
-        boolean success = roomService.switchEpisode(roomId, episodeId, userId);
-
-        if (success) {
-            roomService.getRoomById(roomId).ifPresent(room -> {
-                messagingTemplate.convertAndSend("/topic/room/" + roomId + "/episodeChanged", Map.of(
-                        "action", "episodeChanged",
-                        "episodeId", episodeId,
-                        "streamUrl", room.getStreamUrl(),
-                        "episode", room.getCurrentEpisode(),
-                        "userId", userId,
-                        "timestamp", System.currentTimeMillis()
-                ));
-            });
-        } else {
-            messagingTemplate.convertAndSendToUser(userId, "/queue/error", Map.of(
-                    "error", "Failed to switch episode"
-            ));
-        }
-
-        updateRoomUsers(roomId);
+        switchEpisode(roomId, new RoomCommand(RoomCommand.Type.SWITCH_EPISODE, userId, null, episodeId),
+                "episodeChanged", "Failed to switch episode");
     }
 
     @MessageMapping("/room/{roomId}/nextEpisode")
-    public void handleNextEpisode(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
+    public void handleNextEpisode(@DestinationVariable String roomId, @Payload UserCommand command) {
+        String userId = command.userId();
 
         log.info("Next episode action in room {} by user {}", roomId, userId);
 
-        if (!roomService.isHost(roomId, userId)) {
-            log.warn("User {} is not host of room {}, cannot switch to next episode", userId, roomId);
-            messagingTemplate.convertAndSendToUser(userId, "/queue/error", Map.of(
-                    "error", "Only host can switch episodes"
-            ));
-            return;
-        }
-
-        boolean success = roomService.switchToNextEpisode(roomId, userId);
-
-        if (success) {
-            roomService.getRoomById(roomId).ifPresent(room -> {
-                messagingTemplate.convertAndSend("/topic/room/" + roomId + "/episodeChanged", Map.of(
-                        "action", "nextEpisode",
-                        "episodeId", room.getCurrentEpisodeId(),
-                        "streamUrl", room.getStreamUrl(),
-                        "episode", room.getCurrentEpisode(),
-                        "userId", userId,
-                        "timestamp", System.currentTimeMillis()
-                ));
-            });
-        } else {
-            messagingTemplate.convertAndSendToUser(userId, "/queue/error", Map.of(
-                    "error", "No next episode available"
-            ));
-        }
-
-        updateRoomUsers(roomId);
+        switchEpisode(roomId, new RoomCommand(RoomCommand.Type.NEXT_EPISODE, userId, null, null),
+                "nextEpisode", "No next episode available");
     }
 
     @MessageMapping("/room/{roomId}/previousEpisode")
-    public void handlePreviousEpisode(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
+    public void handlePreviousEpisode(@DestinationVariable String roomId, @Payload UserCommand command) {
+        String userId = command.userId();
 
         log.info("Previous episode action in room {} by user {}", roomId, userId);
 
+        switchEpisode(roomId, new RoomCommand(RoomCommand.Type.PREVIOUS_EPISODE, userId, null, null),
+                "previousEpisode", "No previous episode available");
+    }
+
+    // The episode is resolved off the room's shard; the switch and its broadcast then run on the shard together.
+    private void switchEpisode(String roomId, RoomCommand command, String action, String failure) {
+        String userId = command.userId();
         if (!roomService.isHost(roomId, userId)) {
-            log.warn("User {} is not host of room {}, cannot switch to previous episode", userId, roomId);
-            messagingTemplate.convertAndSendToUser(userId, "/queue/error", Map.of(
-                    "error", "Only host can switch episodes"
-            ));
+            log.warn("User {} is not host of room {}, cannot switch episode", userId, roomId);
+            sendError(userId, "Only host can switch episodes");
             return;
         }
 
-        boolean success = roomService.switchToPreviousEpisode(roomId, userId);
-
-        if (success) {
-            roomService.getRoomById(roomId).ifPresent(room -> {
-                messagingTemplate.convertAndSend("/topic/room/" + roomId + "/episodeChanged", Map.of(
-                        "action", "previousEpisode",
-                        "episodeId", room.getCurrentEpisodeId(),
-                        "streamUrl", room.getStreamUrl(),
-                        "episode", room.getCurrentEpisode(),
-                        "userId", userId,
-                        "timestamp", System.currentTimeMillis()
-                ));
-            });
-        } else {
-            messagingTemplate.convertAndSendToUser(userId, "/queue/error", Map.of(
-                    "error", "No previous episode available"
-            ));
-        }
+        roomCommands.switchEpisodeLocally(roomId, command, switched -> {
+            if (switched) {
+                broadcastEpisodeChanged(roomId, action, userId);
+            } else {
+                sendError(userId, failure);
+            }
 
-        updateRoomUsers(roomId);
+            updateRoomUsers(roomId);
+        });
     }
 
     @MessageMapping("/room/{roomId}/getAvailableEpisodes")
-    public void handleGetAvailableEpisodes(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
+    public void handleGetAvailableEpisodes(@DestinationVariable String roomId, @Payload UserCommand command) {
+        String userId = command.userId();
 
         log.debug("Get available episodes request from user {} in room {}", userId, roomId);
 
-        var availableEpisodes = roomService.getAvailableEpisodes(roomId);
-
-        messagingTemplate.convertAndSendToUser(userId, "/queue/room/" + roomId + "/availableEpisodes", Map.of(
-                "episodes", availableEpisodes,
-                "timestamp", System.currentTimeMillis()
-        ));
+        frameSender.sendToUser(userId, "/queue/room/" + roomId + "/availableEpisodes",
+                new EpisodesFrame(roomService.getAvailableEpisodes(roomId), System.currentTimeMillis()));
     }
 
     @MessageMapping("/room/{roomId}/getRoomInfo")
-    public void handleGetRoomInfo(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
+    public void handleGetRoomInfo(@DestinationVariable String roomId, @Payload UserCommand command) {
+        String userId = command.userId();
 
         log.debug("Get room info request from user {} for room {}", userId, roomId);
 
         roomService.getRoomById(roomId).ifPresentOrElse(
-                room -> {
-                    messagingTemplate.convertAndSendToUser(userId, "/queue/room/" + roomId + "/roomInfo", Map.of(
-                            "room", Map.of(
-                                    "id", room.getId(),
-                                    "name", room.getName(),
-                                    "roomType", room.getRoomType().name(),
-                                    "currentTime", room.getCurrentTime(),
-                                    "isPlaying", room.isPlaying(),
-                                    "userCount", room.getUserCount(),
-                                    "streamUrl", room.getStreamUrl() != null ? room.getStreamUrl() : "",
-                                    "currentEpisodeId", room.getCurrentEpisodeId() != null ? room.getCurrentEpisodeId() : 0,
-                                    "contentTitle", room.getContentTitle()
-                            ),
-                            "timestamp", System.currentTimeMillis()
-                    ));
-                },
-                () -> {
-                    messagingTemplate.convertAndSendToUser(userId, "/queue/error", Map.of(
-                            "error", "Room not found: " + roomId
-                    ));
-                }
+                room -> frameSender.sendToUser(userId, "/queue/room/" + roomId + "/roomInfo", new RoomInfoFrame(
+                        new RoomInfoFrame.RoomInfo(
+                                room.getId(),
+                                room.getName(),
+                                room.getRoomType().name(),
+                                room.getLivePosition(),
+                                room.isPlaying(),
+                                room.getUserCount(),
+                                room.getStreamUrl() != null ? room.getStreamUrl() : "",
+                                room.getCurrentEpisodeId() != null ? room.getCurrentEpisodeId() : 0,
+                                room.getContentTitle()
+                        ),
+                        System.currentTimeMillis()
+                )),
+                () -> sendError(userId, "Room not found: " + roomId)
         );
     }
 
     @MessageMapping("/room/{roomId}/changeQuality")
-    public void handleChangeQuality(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-        String quality = (String) payload.get("quality");
-
-        log.info("Quality change request in room {} by user {} to quality {}", roomId, userId, quality);
+    public void handleChangeQuality(@DestinationVariable String roomId, @Payload QualityCommand command) {
+        log.info("Quality change request in room {} by user {} to quality {}",
+                roomId, command.userId(), command.quality());
 
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/qualityChanged", Map.of(
-                "quality", quality,
-                "userId", userId,
-                "timestamp", System.currentTimeMillis()
-        ));
+        frameSender.send("/topic/room/" + roomId + "/qualityChanged",
+                new QualityFrame(command.quality(), command.userId(), System.currentTimeMillis()));
     }
 
-    private boolean shouldIgnoreAction(String roomId, String action, double currentTime, String userId) {
-        String key = roomId + ":" + action;
-        LastAction lastAction = lastActions.get(key);
-        long currentTimestamp = System.currentTimeMillis();
-
-        if (lastAction != null) {
-            boolean sameTime = Math.abs(lastAction.currentTime - currentTime) < 1.0;
-            boolean recentAction = (currentTimestamp - lastAction.timestamp) < DEBOUNCE_TIME;
-            boolean sameUser = lastAction.userId.equals(userId);
-
-            if (sameTime && recentAction && !sameUser) {
-                return true;
+    private void applyPlayback(String roomId, String action, boolean playing, PlaybackCommand command) {
+        String userId = command.userId();
+        double currentTime = command.currentTime();
+
+        log.info("Action {} in room {} by user {} at time {}", action, roomId, userId, currentTime);
+
+        Room current = roomService.getRoomById(roomId).orElse(null);
+        if (current != null) {
+            long now = System.currentTimeMillis();
+            boolean ignored = current.getActionDebounce().shouldIgnore(action, currentTime, userId, now);
+            current.getCommandLog().record(CommandLog.Type.ofAction(action), userId, currentTime,
+                    command.effectivePlaybackRate(), 0L, !ignored, now);
+            if (ignored) {
+                log.debug("Ignoring duplicate {} action from user {} at time {}", action, userId, currentTime);
+                return;
             }
         }
 
-        lastActions.put(key, new LastAction(action, currentTime, userId, currentTimestamp));
+        idleReaper.userSeen(roomId, userId);
 
-        cleanupOldActions(currentTimestamp);
+        roomService.updateRoomState(roomId, currentTime, playing, command.effectivePlaybackRate(), userId);
+        roomService.updateAllUsersTime(roomId, currentTime);
 
-        return false;
+        roomService.getRoomById(roomId).ifPresent(room ->
+                frameSender.send("/topic/room/" + roomId + "/sync", new SyncFrame(
+                        action,
+                        room.getCurrentTime(),
+                        room.getPlaybackRate(),
+                        room.getAnchorTimestamp(),
+                        userId,
+                        System.currentTimeMillis()
+                )));
+
+        presenceAggregator.allUsersChanged(roomId);
     }
 
-    private void cleanupOldActions(long currentTimestamp) {
-        lastActions.entrySet().removeIf(entry ->
-                currentTimestamp - entry.getValue().timestamp > DEBOUNCE_TIME * 2
-        );
+    private void broadcastEpisodeChanged(String roomId, String action, String userId) {
+        roomService.getRoomById(roomId).ifPresent(room ->
+                frameSender.send("/topic/room/" + roomId + "/episodeChanged", new EpisodeChangedFrame(
+                        action,
+                        room.getCurrentEpisodeId(),
+                        room.getStreamUrl(),
+                        room.getCurrentEpisode(),
+                        userId,
+                        System.currentTimeMillis()
+                )));
+    }
+
+    private void sendError(String userId, String error) {
+        frameSender.sendToUser(userId, "/queue/error", new ErrorFrame(error));
     }
 
     private void updateRoomUsers(String roomId) {
-        roomService.getRoomById(roomId).ifPresent(room -> {
-            messagingTemplate.convertAndSend("/topic/room/" + roomId + "/users",
-                    room.getUsers());
-        });
+        roomService.getRoomById(roomId).ifPresent(room ->
+                frameSender.send("/topic/room/" + roomId + "/users", room.getUsers()));
     }
 
     @MessageMapping("/room/{roomId}/ping")
-    public void handlePing(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
-
-        messagingTemplate.convertAndSendToUser(userId, "/queue/pong", Map.of(
-                "timestamp", System.currentTimeMillis()
+    public void handlePing(@DestinationVariable String roomId, @Payload PingCommand command,
+                           @Header(name = CompactEncodingInterceptor.RECEIVED_AT_HEADER, required = false)
+                           Long receivedAt) {
+        idleReaper.userSeen(roomId, command.userId());
+
+        // Answered off the room shard so queueing behind room commands does not inflate the measured RTT; time
+        // spent in the inbound queue is excluded through the receive stamp taken on the socket thread.
+        long sentAt = System.currentTimeMillis();
+        frameSender.sendToUser(command.userId(), "/queue/pong", new PongFrame(
+                command.clientTime() != null ? command.clientTime() : 0L,
+                receivedAt != null ? receivedAt : sentAt,
+                sentAt
         ));
     }
 
     @MessageMapping("/room/{roomId}/heartbeat")
-    public void handleHeartbeat(@DestinationVariable String roomId, @Payload Map<String, Object> payload) {
-        String userId = (String) payload.get("userId");
+    public void handleHeartbeat(@DestinationVariable String roomId, @Payload UserCommand command) {
+        if (!sessionPresence.clientHeartbeatsEnabled()) {
+            return;
+        }
+
+        roomExecutor.execute(roomId, () -> {
+            String userId = command.userId();
+            idleReaper.userSeen(roomId, userId);
 
-        roomService.getRoomById(roomId).ifPresent(room -> {
-            room.getUsers().stream()
-                    .filter(user -> user.getId().equals(userId))
-                    .findFirst()
+            roomService.getRoomById(roomId)
+                    .map(room -> room.getUser(userId))
                     .ifPresent(user -> {
-                        user.setLastSeen(java.time.LocalDateTime.now());
+                        user.setLastSeen(System.currentTimeMillis());
                         user.setConnected(true);
                     });
         });
@@ -0,0 +1,11 @@
+package org.example.syncwatchservice.message;
+
+import org.example.syncwatchservice.model.Episode;
+
+public record EpisodeChangedFrame(String action,
+                                  Long episodeId,
+                                  String streamUrl,
+                                  Episode episode,
+                                  String userId,
+                                  long timestamp) {
+}
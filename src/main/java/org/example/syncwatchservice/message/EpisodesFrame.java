@@ -0,0 +1,8 @@
+package org.example.syncwatchservice.message;
+
+import org.example.syncwatchservice.model.Episode;
+
+import java.util.List;
+
+public record EpisodesFrame(List<Episode> episodes, long timestamp) {
+}
@@ -0,0 +1,4 @@
+package org.example.syncwatchservice.message;
+
+public record ErrorFrame(String error) {
+}
@@ -0,0 +1,7 @@
+package org.example.syncwatchservice.message;
+
+/**
+ * A client STOMP SEND frame relayed from the node holding the socket to the node owning the room.
+ */
+public record ForwardedMessage(String destination, String contentType, byte[] payload, String userId) {
+}
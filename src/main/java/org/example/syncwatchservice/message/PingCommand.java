@@ -0,0 +1,4 @@
+package org.example.syncwatchservice.message;
+
+public record PingCommand(String userId, Long clientTime) {
+}
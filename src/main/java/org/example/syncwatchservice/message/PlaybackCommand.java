@@ -0,0 +1,8 @@
+package org.example.syncwatchservice.message;
+
+public record PlaybackCommand(String userId, double currentTime, Double playbackRate) {
+
+    public double effectivePlaybackRate() {
+        return playbackRate != null && playbackRate > 0 ? playbackRate : 1.0;
+    }
+}
@@ -0,0 +1,4 @@
+package org.example.syncwatchservice.message;
+
+public record PongFrame(long clientTime, long serverReceiveTime, long serverSendTime) {
+}
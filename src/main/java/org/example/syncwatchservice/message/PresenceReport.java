@@ -0,0 +1,7 @@
+package org.example.syncwatchservice.message;
+
+/**
+ * Session liveness of a user, reported by the node holding the socket to the node owning the room.
+ */
+public record PresenceReport(String roomId, String userId, boolean connected) {
+}
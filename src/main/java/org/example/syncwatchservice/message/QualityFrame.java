@@ -0,0 +1,4 @@
+package org.example.syncwatchservice.message;
+
+public record QualityFrame(String quality, String userId, long timestamp) {
+}
@@ -0,0 +1,8 @@
+package org.example.syncwatchservice.message;
+
+public record RoomCommand(Type type, String userId, String username, Long episodeId) {
+
+    public enum Type {
+        JOIN, LEAVE, SWITCH_EPISODE, NEXT_EPISODE, PREVIOUS_EPISODE
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.syncwatchservice.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record RoomInfoFrame(RoomInfo room, long timestamp) {
+
+    public record RoomInfo(String id,
+                           String name,
+                           String roomType,
+                           double currentTime,
+                           @JsonProperty("isPlaying") boolean playing,
+                           int userCount,
+                           String streamUrl,
+                           long currentEpisodeId,
+                           String contentTitle) {
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.syncwatchservice.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record RoomStateFrame(double currentTime,
+                             long serverTime,
+                             double playbackRate,
+                             @JsonProperty("isPlaying") boolean playing,
+                             String lastActionUserId,
+                             String streamUrl,
+                             String roomType,
+                             long currentEpisodeId) {
+}
@@ -0,0 +1,9 @@
+package org.example.syncwatchservice.message;
+
+public record SyncFrame(String action,
+                        double currentTime,
+                        double playbackRate,
+                        long serverTime,
+                        String userId,
+                        long timestamp) {
+}
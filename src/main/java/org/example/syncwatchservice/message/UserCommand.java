@@ -0,0 +1,4 @@
+package org.example.syncwatchservice.message;
+
+public record UserCommand(String userId, String username) {
+}
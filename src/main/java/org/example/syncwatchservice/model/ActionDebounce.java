@@ -0,0 +1,48 @@
+package org.example.syncwatchservice.model;
+
+/**
+ * Last play, pause and seek seen in one room, used to drop the echo of an action that another client
+ * already issued for the same position. Entries are overwritten in place and simply age out by timestamp,
+ * so there is nothing to sweep. Only touched from the room's shard thread.
+ */
+public class ActionDebounce {
+
+    public static final long WINDOW_MILLIS = 500;
+    private static final double SAME_POSITION_SECONDS = 1.0;
+
+    private final double[] positions = new double[3];
+    private final long[] timestamps = new long[3];
+    private final String[] userIds = new String[3];
+
+    /**
+     * Returns true when the action duplicates a recent one by a different user; otherwise records it.
+     */
+    public boolean shouldIgnore(String action, double position, String userId, long now) {
+        int slot = slotOf(action);
+        if (slot < 0) {
+            return false;
+        }
+
+        String lastUserId = userIds[slot];
+        if (lastUserId != null
+                && now - timestamps[slot] < WINDOW_MILLIS
+                && Math.abs(positions[slot] - position) < SAME_POSITION_SECONDS
+                && !lastUserId.equals(userId)) {
+            return true;
+        }
+
+        positions[slot] = position;
+        timestamps[slot] = now;
+        userIds[slot] = userId;
+        return false;
+    }
+
+    private static int slotOf(String action) {
+        return switch (action) {
+            case "play" -> 0;
+            case "pause" -> 1;
+            case "seek" -> 2;
+            default -> -1;
+        };
+    }
+}
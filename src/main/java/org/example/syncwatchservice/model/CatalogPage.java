@@ -0,0 +1,26 @@
+package org.example.syncwatchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CatalogPage<T> {
+    private List<T> items;
+    private int page;
+    private int size;
+    private int totalItems;
+    private int totalPages;
+    private boolean hasNext;
+
+    public static <T> CatalogPage<T> of(List<T> matches, int page, int size) {
+        int totalItems = matches.size();
+        int totalPages = (totalItems + size - 1) / size;
+        // In long: a large page number from the query string would overflow page * size.
+        int from = (int) Math.min((long) page * size, totalItems);
+        int to = Math.min(from + size, totalItems);
+        return new CatalogPage<>(matches.subList(from, to), page, size, totalItems, totalPages, page < totalPages - 1);
+    }
+}
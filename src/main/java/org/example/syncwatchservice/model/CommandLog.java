@@ -0,0 +1,118 @@
+package org.example.syncwatchservice.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the most recent commands applied to (or debounced in) one room, kept for diagnosing sync
+ * complaints. Slots are preallocated primitive arrays, so recording is a handful of array stores.
+ * <p>
+ * Written only from the room's shard; readers on other threads copy the ring and drop any slot the writer
+ * reused meanwhile.
+ */
+public class CommandLog {
+
+    public static final int CAPACITY = 64;
+
+    private final long[] timestamps = new long[CAPACITY];
+    private final byte[] types = new byte[CAPACITY];
+    private final String[] userIds = new String[CAPACITY];
+    private final double[] positions = new double[CAPACITY];
+    private final double[] playbackRates = new double[CAPACITY];
+    private final long[] episodeIds = new long[CAPACITY];
+    private final boolean[] applied = new boolean[CAPACITY];
+
+    // Number of commands recorded so far; the next sequence number minus one.
+    private volatile long written;
+
+    public void record(Type type, String userId, double position, double playbackRate, long episodeId,
+                       boolean wasApplied, long timestamp) {
+        long sequence = written;
+        int slot = (int) (sequence % CAPACITY);
+        timestamps[slot] = timestamp;
+        types[slot] = (byte) type.ordinal();
+        userIds[slot] = userId;
+        positions[slot] = position;
+        playbackRates[slot] = playbackRate;
+        episodeIds[slot] = episodeId;
+        applied[slot] = wasApplied;
+        written = sequence + 1;
+    }
+
+    /**
+     * Copies the retained commands, oldest first. The slot the writer may currently be filling is never
+     * returned, so at most {@code CAPACITY - 1} entries come back.
+     */
+    public List<Entry> entries() {
+        long end = written;
+        long start = Math.max(0, end - (CAPACITY - 1));
+        List<Entry> copy = new ArrayList<>((int) (end - start));
+        Type[] values = Type.values();
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence % CAPACITY);
+            copy.add(new Entry(sequence + 1, timestamps[slot], values[types[slot]], userIds[slot],
+                    positions[slot], playbackRates[slot], episodeIds[slot], applied[slot]));
+        }
+
+        long oldestValid = Math.max(0, written - (CAPACITY - 1)) + 1;
+        copy.removeIf(entry -> entry.sequence() < oldestValid);
+        return copy;
+    }
+
+    /**
+     * Re-applies the retained commands to a scratch playback clock and reports, for every step, where playback
+     * should have been just before it and how far the command moved it.
+     */
+    public List<ReplayStep> replay() {
+        List<ReplayStep> steps = new ArrayList<>();
+        boolean known = false;
+        boolean playing = false;
+        double position = 0.0;
+        double rate = 1.0;
+        long anchoredAt = 0;
+
+        for (Entry entry : entries()) {
+            Double expected = known
+                    ? (playing ? position + Math.max(0, entry.timestamp() - anchoredAt) / 1000.0 * rate : position)
+                    : null;
+
+            if (entry.applied() && entry.type() != Type.JOIN && entry.type() != Type.LEAVE) {
+                boolean switched = entry.type() == Type.SWITCH_EPISODE;
+                position = switched ? 0.0 : entry.position();
+                playing = entry.type() == Type.PLAY;
+                rate = switched ? rate : entry.playbackRate();
+                anchoredAt = entry.timestamp();
+                known = true;
+            }
+
+            Double jump = expected != null && entry.applied() && isPlayback(entry.type())
+                    ? entry.position() - expected
+                    : null;
+            steps.add(new ReplayStep(entry, expected, known ? position : null, jump));
+        }
+        return steps;
+    }
+
+    private static boolean isPlayback(Type type) {
+        return type == Type.PLAY || type == Type.PAUSE || type == Type.SEEK;
+    }
+
+    public enum Type {
+        PLAY, PAUSE, SEEK, SWITCH_EPISODE, JOIN, LEAVE;
+
+        public static Type ofAction(String action) {
+            return switch (action) {
+                case "play" -> PLAY;
+                case "pause" -> PAUSE;
+                default -> SEEK;
+            };
+        }
+    }
+
+    public record Entry(long sequence, long timestamp, Type type, String userId, double position,
+                        double playbackRate, long episodeId, boolean applied) {
+    }
+
+    public record ReplayStep(Entry command, Double expectedPosition, Double positionAfter, Double jump) {
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.syncwatchservice.model;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class EpisodeIndex {
+    @Getter
+    private final Long seriesId;
+    @Getter
+    private final List<Season> seasons;
+    @Getter
+    private final List<Episode> episodes;
+    private final Map<Long, Integer> positions;
+
+    public EpisodeIndex(Long seriesId, List<Season> seasons, List<Episode> episodes) {
+        this.seriesId = seriesId;
+        this.seasons = seasons;
+        this.episodes = episodes;
+        this.positions = HashMap.newHashMap(episodes.size());
+        for (int i = 0; i < episodes.size(); i++) {
+            positions.put(episodes.get(i).getId(), i);
+        }
+    }
+
+    public static EpisodeIndex empty(Long seriesId) {
+        return new EpisodeIndex(seriesId, Collections.emptyList(), Collections.emptyList());
+    }
+
+    public boolean contains(Long episodeId) {
+        return positions.containsKey(episodeId);
+    }
+
+    public Optional<Episode> getFirst() {
+        return episodes.isEmpty() ? Optional.empty() : Optional.of(episodes.get(0));
+    }
+
+    public Optional<Episode> getNext(Long episodeId) {
+        return getRelative(episodeId, 1);
+    }
+
+    public Optional<Episode> getPrevious(Long episodeId) {
+        return getRelative(episodeId, -1);
+    }
+
+    private Optional<Episode> getRelative(Long episodeId, int offset) {
+        Integer position = positions.get(episodeId);
+        if (position == null) {
+            return Optional.empty();
+        }
+
+        int target = position + offset;
+        if (target < 0 || target >= episodes.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(episodes.get(target));
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.syncwatchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyBatch {
+    private String node;
+    private long sequence;
+    private List<LobbyDelta> deltas;
+}
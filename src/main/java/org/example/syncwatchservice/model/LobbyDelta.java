@@ -0,0 +1,18 @@
+package org.example.syncwatchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyDelta {
+    private Type type;
+    private String roomId;
+    private RoomSummary room;
+
+    public enum Type {
+        ROOM_CREATED, ROOM_UPDATED, ROOM_DELETED
+    }
+}
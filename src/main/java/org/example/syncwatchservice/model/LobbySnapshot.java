@@ -0,0 +1,19 @@
+package org.example.syncwatchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbySnapshot {
+    /**
+     * Last batch sequence of every node whose rooms are included.
+     */
+    private Map<String, Long> sequences;
+    private List<RoomSummary> rooms;
+}
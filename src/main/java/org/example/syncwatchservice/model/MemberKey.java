@@ -0,0 +1,7 @@
+package org.example.syncwatchservice.model;
+
+/**
+ * One user's membership of one room, as tracked by the idle reaper.
+ */
+public record MemberKey(String roomId, String userId) {
+}
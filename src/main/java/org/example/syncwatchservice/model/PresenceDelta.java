@@ -0,0 +1,15 @@
+package org.example.syncwatchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDelta {
+    private long timestamp;
+    private List<UserPresence> users;
+}
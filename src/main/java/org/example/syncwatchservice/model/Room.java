@@ -1,10 +1,14 @@
 package org.example.syncwatchservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Data
@@ -15,14 +19,27 @@ public class Room {
     private RoomType roomType;
     private Movie movie;
     private Series series;
-    private Long currentEpisodeId;
-    private Episode currentEpisode;
-    private double currentTime;
-    private boolean isPlaying;
+    private volatile Long currentEpisodeId;
+    private volatile Episode currentEpisode;
+    private volatile double currentTime;
+    private volatile boolean isPlaying;
+    private volatile double playbackRate = 1.0;
+    private volatile long anchorTimestamp;
     private String hostId;
     private LocalDateTime createdAt;
-    private Set<User> users;
-    private String lastActionUserId;
+    // Keyed by user id; mutated on the room's shard, read from anywhere.
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private volatile String lastActionUserId;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final ActionDebounce actionDebounce = new ActionDebounce();
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final CommandLog commandLog = new CommandLog();
 
     public Room(String id, String name, Movie movie, String hostId) {
         this.id = id;
@@ -30,10 +47,8 @@ public class Room {
         this.movie = movie;
         this.roomType = RoomType.MOVIE;
         this.hostId = hostId;
-        this.users = ConcurrentHashMap.newKeySet();
         this.createdAt = LocalDateTime.now();
-        this.currentTime = 0.0;
-        this.isPlaying = false;
+        anchor(0.0, false, System.currentTimeMillis());
     }
 
     public Room(String id, String name, Series series, Long initialEpisodeId, String hostId) {
@@ -43,32 +58,60 @@ public class Room {
         this.currentEpisodeId = initialEpisodeId;
         this.roomType = RoomType.SERIES;
         this.hostId = hostId;
-        this.users = ConcurrentHashMap.newKeySet();
         this.createdAt = LocalDateTime.now();
-        this.currentTime = 0.0;
-        this.isPlaying = false;
+        anchor(0.0, false, System.currentTimeMillis());
     }
 
-    public void addUser(User user) {
-        this.users.add(user);
+    /**
+     * Records the playback position at the given wall-clock time. Writes happen on the room's shard,
+     * readers on other threads may briefly see a mixed anchor, which only skews one extrapolation.
+     */
+    public void anchor(double position, boolean playing, long timestamp) {
+        this.anchorTimestamp = timestamp;
+        this.currentTime = position;
+        this.isPlaying = playing;
     }
 
-    public void removeUser(User user) {
-        this.users.remove(user);
+    public double getPositionAt(long timestamp) {
+        double position = currentTime;
+        if (!isPlaying) {
+            return position;
+        }
+        long elapsed = Math.max(0, timestamp - anchorTimestamp);
+        return position + elapsed / 1000.0 * playbackRate;
     }
 
-    public int getUserCount() {
-        return users.size();
+    public double getLivePosition() {
+        return getPositionAt(System.currentTimeMillis());
     }
 
-    public void setUsers(Set<User> users) {
-        if (users == null) {
-            this.users = ConcurrentHashMap.newKeySet();
-        } else {
-            this.users = users;
+    public Collection<User> getUsers() {
+        return users.values();
+    }
+
+    public void setUsers(Collection<User> users) {
+        this.users.clear();
+        if (users != null) {
+            users.forEach(this::addUser);
         }
     }
 
+    public User getUser(String userId) {
+        return users.get(userId);
+    }
+
+    public boolean addUser(User user) {
+        return users.putIfAbsent(user.getId(), user) == null;
+    }
+
+    public User removeUser(String userId) {
+        return users.remove(userId);
+    }
+
+    public int getUserCount() {
+        return users.size();
+    }
+
     public String getStreamUrl() {
         if (roomType == RoomType.MOVIE && movie != null) {
             return movie.getStreamUrl();
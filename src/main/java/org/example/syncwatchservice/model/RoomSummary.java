@@ -0,0 +1,26 @@
+package org.example.syncwatchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSummary {
+    private String id;
+    private String name;
+    private String roomType;
+    private String contentKey;
+    private String contentTitle;
+    private int userCount;
+    private boolean playing;
+
+    public static RoomSummary of(Room room) {
+        String contentKey = room.getRoomType() == Room.RoomType.MOVIE
+                ? "movie_" + room.getMovie().getId()
+                : "series_" + room.getSeries().getId();
+        return new RoomSummary(room.getId(), room.getName(), room.getRoomType().name(), contentKey,
+                room.getContentTitle(), room.getUserCount(), room.isPlaying());
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.syncwatchservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -13,16 +15,22 @@ public class User {
     @EqualsAndHashCode.Include
     private String id;
     private String username;
-    private double currentTime;
+    private volatile double currentTime;
     private LocalDateTime joinedAt;
-    private LocalDateTime lastSeen;
-    private boolean isConnected;
+    // Epoch millis; a primitive so the per-update touch does not allocate.
+    private volatile long lastSeen;
+    private volatile boolean isConnected;
+
+    // Made once per membership so each sign of activity reschedules the reaper without allocating a key.
+    @JsonIgnore
+    @ToString.Exclude
+    private volatile MemberKey memberKey;
 
     public User(String id, String username) {
         this.id = id;
         this.username = username;
         this.joinedAt = LocalDateTime.now();
-        this.lastSeen = LocalDateTime.now();
+        this.lastSeen = System.currentTimeMillis();
         this.isConnected = true;
         this.currentTime = 0.0;
     }
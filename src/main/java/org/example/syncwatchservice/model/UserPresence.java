@@ -0,0 +1,21 @@
+package org.example.syncwatchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPresence {
+    private String id;
+    private String username;
+    private double currentTime;
+    private String formattedCurrentTime;
+    private boolean connected;
+
+    public static UserPresence of(User user) {
+        return new UserPresence(user.getId(), user.getUsername(), user.getCurrentTime(),
+                user.getFormattedCurrentTime(), user.isConnected());
+    }
+}
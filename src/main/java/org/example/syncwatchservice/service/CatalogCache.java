@@ -0,0 +1,142 @@
+package org.example.syncwatchservice.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.StorageProperties;
+import org.example.syncwatchservice.model.Episode;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Season;
+import org.example.syncwatchservice.model.Series;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class CatalogCache {
+
+    private static final String ALL = "all";
+
+    private final LoadingCache<String, List<Movie>> movies;
+    private final LoadingCache<String, List<Series>> series;
+    private final LoadingCache<Long, List<Season>> seasons;
+    private final LoadingCache<Long, List<Episode>> episodes;
+    private final LoadingCache<Long, Episode> episodeDetails;
+
+    public CatalogCache(StorageService storageService, StorageProperties properties, MeterRegistry meterRegistry) {
+        StorageProperties.Cache cache = properties.getCache();
+
+        this.movies = build("movies", cache.getMovies(), meterRegistry,
+                key -> Collections.unmodifiableList(storageService.getAllMovies()));
+        this.series = build("series", cache.getSeries(), meterRegistry,
+                key -> Collections.unmodifiableList(storageService.getAllSeries()));
+        this.seasons = build("seasons", cache.getSeasons(), meterRegistry,
+                seriesId -> Collections.unmodifiableList(storageService.getSeasonsBySeries(seriesId)));
+        this.episodes = build("episodes", cache.getEpisodes(), meterRegistry,
+                seasonId -> Collections.unmodifiableList(storageService.getEpisodesBySeason(seasonId)));
+        this.episodeDetails = build("episode-details", cache.getEpisodes(), meterRegistry,
+                episodeId -> storageService.getEpisodeById(episodeId).orElse(null));
+    }
+
+    public List<Movie> getAllMovies() {
+        return orEmpty(movies, ALL);
+    }
+
+    public List<Series> getAllSeries() {
+        return orEmpty(series, ALL);
+    }
+
+    public List<Season> getSeasonsBySeries(Long seriesId) {
+        return orEmpty(seasons, seriesId);
+    }
+
+    public List<Episode> getEpisodesBySeason(Long seasonId) {
+        return orEmpty(episodes, seasonId);
+    }
+
+    /**
+     * Like {@link #getSeasonsBySeries}, but throws {@link RestClientException} when storage could not be asked
+     * instead of answering with an empty list.
+     */
+    public List<Season> loadSeasonsBySeries(Long seriesId) {
+        return seasons.get(seriesId);
+    }
+
+    /**
+     * Like {@link #getEpisodesBySeason}, but throws {@link RestClientException} when storage could not be asked
+     * instead of answering with an empty list.
+     */
+    public List<Episode> loadEpisodesBySeason(Long seasonId) {
+        return episodes.get(seasonId);
+    }
+
+    public Optional<Episode> getEpisodeById(Long episodeId) {
+        try {
+            return Optional.ofNullable(episodeDetails.get(episodeId));
+        } catch (RestClientException e) {
+            return Optional.empty();
+        }
+    }
+
+    static <K, V> LoadingCache<K, V> build(String name,
+                                           StorageProperties.CacheSpec spec,
+                                           MeterRegistry meterRegistry,
+                                           CacheLoader<K, V> loader) {
+        log.debug("Configuring catalog cache '{}': refreshAfter={}, expireAfter={}, maximumSize={}",
+                name, spec.getRefreshAfter(), spec.getExpireAfter(), spec.getMaximumSize());
+
+        LoadingCache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .refreshAfterWrite(spec.getRefreshAfter())
+                .expireAfter(expireAfterWrite(spec))
+                .recordStats()
+                .build(loader);
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "storage." + name);
+    }
+
+    /**
+     * Expires entries a fixed time after they were loaded or refreshed; empty collections only live for
+     * {@code emptyExpireAfter}, so content added to an empty series or season shows up soon.
+     */
+    private static <K, V> Expiry<K, V> expireAfterWrite(StorageProperties.CacheSpec spec) {
+        long expireAfter = spec.getExpireAfter().toNanos();
+        long emptyExpireAfter = Math.min(expireAfter, spec.getEmptyExpireAfter().toNanos());
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, V value, long currentTime) {
+                return value instanceof Collection<?> values && values.isEmpty() ? emptyExpireAfter : expireAfter;
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    // Loaders throw while storage is down, which makes a refresh keep the stale entry; a first load has
+    // nothing to fall back to and reads as empty.
+    private static <K, T> List<T> orEmpty(LoadingCache<K, List<T>> cache, K key) {
+        try {
+            List<T> values = cache.get(key);
+            return values != null ? values : Collections.emptyList();
+        } catch (RestClientException e) {
+            return Collections.emptyList();
+        }
+    }
+}
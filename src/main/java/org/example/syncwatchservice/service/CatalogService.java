@@ -0,0 +1,80 @@
+package org.example.syncwatchservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.syncwatchservice.model.CatalogPage;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Series;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogService {
+
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final MovieService movieService;
+    private final SeriesService seriesService;
+    private final RoomService roomService;
+
+    public CompletableFuture<CatalogPage<Movie>> findMoviesAsync(String query, int page, Integer size) {
+        return movieService.getAllMoviesAsync()
+                .thenApply(movies -> paginate(movies, Movie::getTitle, query, page, size));
+    }
+
+    public CompletableFuture<CatalogPage<Series>> findSeriesAsync(String query, int page, Integer size) {
+        return seriesService.getAllSeriesAsync()
+                .thenApply(series -> paginate(series, Series::getTitle, query, page, size));
+    }
+
+    public CatalogPage<Movie> findMovies(String query, int page, Integer size) {
+        return paginate(movieService.getAllMovies(), Movie::getTitle, query, page, size);
+    }
+
+    public CatalogPage<Series> findSeries(String query, int page, Integer size) {
+        return paginate(seriesService.getAllSeries(), Series::getTitle, query, page, size);
+    }
+
+    public Map<String, Integer> getMovieRoomCounts(List<Movie> movies) {
+        return movies.stream()
+                .collect(Collectors.toMap(
+                        movie -> "movie_" + movie.getId(),
+                        movie -> roomService.countRoomsByMovieId(movie.getId()),
+                        (first, second) -> first
+                ));
+    }
+
+    public Map<String, Integer> getSeriesRoomCounts(List<Series> series) {
+        return series.stream()
+                .collect(Collectors.toMap(
+                        s -> "series_" + s.getId(),
+                        s -> roomService.countRoomsBySeriesId(s.getId()),
+                        (first, second) -> first
+                ));
+    }
+
+    private <T> CatalogPage<T> paginate(List<T> items, Function<T, String> title, String query, int page, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        if (query == null || query.isBlank()) {
+            return CatalogPage.of(items, pageNumber, pageSize);
+        }
+
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        List<T> matches = items.stream()
+                .filter(item -> {
+                    String value = title.apply(item);
+                    return value != null && value.toLowerCase(Locale.ROOT).contains(needle);
+                })
+                .toList();
+        return CatalogPage.of(matches, pageNumber, pageSize);
+    }
+}
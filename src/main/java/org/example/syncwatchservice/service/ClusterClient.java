@@ -0,0 +1,152 @@
+package org.example.syncwatchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.ClusterProperties;
+import org.example.syncwatchservice.config.ClusterSecretFilter;
+import org.example.syncwatchservice.message.ForwardedMessage;
+import org.example.syncwatchservice.message.PresenceReport;
+import org.example.syncwatchservice.message.RoomCommand;
+import org.example.syncwatchservice.model.LobbySnapshot;
+import org.example.syncwatchservice.model.Room;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "true")
+public class ClusterClient implements DisposableBean {
+
+    private final RestTemplate restTemplate;
+
+    // Node-to-node calls block for up to the request timeout, so they run here rather than on room shards or the
+    // scheduler. The one exception is the room handoff, which has to be atomic with the room's commands.
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cluster-", 0).factory());
+
+    // Forwarded messages of one room go through one lane so the owner receives them in order.
+    private final ExecutorService[] forwardingLanes;
+
+    public ClusterClient(RestTemplateBuilder restTemplateBuilder, ClusterProperties properties) {
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(properties.getRequestTimeout())
+                .readTimeout(properties.getRequestTimeout())
+                .defaultHeader(ClusterSecretFilter.HEADER, properties.getSecret())
+                .build();
+
+        this.forwardingLanes = new ExecutorService[Math.max(1, properties.getForwardingLanes())];
+        for (int i = 0; i < forwardingLanes.length; i++) {
+            forwardingLanes[i] = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("cluster-forward-" + i).daemon().factory());
+        }
+    }
+
+    public CompletableFuture<Boolean> pingAsync(String node) {
+        return CompletableFuture.supplyAsync(() -> ping(node), executor);
+    }
+
+    public boolean ping(String node) {
+        try {
+            restTemplate.getForEntity(node + "/internal/cluster/ping", Void.class);
+            return true;
+        } catch (RestClientException e) {
+            log.debug("Cluster node {} did not answer ping: {}", node, e.getMessage());
+            return false;
+        }
+    }
+
+    public Optional<Room> fetchRoom(String node, String roomId) {
+        try {
+            return Optional.ofNullable(restTemplate.getForObject(node + "/internal/rooms/{roomId}", Room.class, roomId));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        } catch (RestClientException e) {
+            log.warn("Failed to fetch room {} from {}: {}", roomId, node, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public List<Room> fetchRooms(String node) {
+        try {
+            Room[] rooms = restTemplate.getForObject(node + "/internal/rooms", Room[].class);
+            return rooms != null ? Arrays.asList(rooms) : Collections.emptyList();
+        } catch (RestClientException e) {
+            log.warn("Failed to fetch rooms from {}: {}", node, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    public Optional<LobbySnapshot> fetchLobby(String node) {
+        try {
+            return Optional.ofNullable(restTemplate.getForObject(node + "/internal/lobby", LobbySnapshot.class));
+        } catch (RestClientException e) {
+            log.warn("Failed to fetch lobby from {}: {}", node, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public boolean sendCommand(String node, String roomId, RoomCommand command) {
+        try {
+            Boolean result = restTemplate.postForObject(node + "/internal/rooms/{roomId}/commands",
+                    command, Boolean.class, roomId);
+            return Boolean.TRUE.equals(result);
+        } catch (RestClientException e) {
+            log.warn("Failed to forward {} for room {} to {}: {}", command.type(), roomId, node, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Queues the message behind earlier ones for the same room and returns immediately.
+     */
+    public void forwardMessageAsync(String node, String roomId, ForwardedMessage message) {
+        forwardingLanes[Math.floorMod(roomId.hashCode(), forwardingLanes.length)]
+                .execute(() -> forwardMessage(node, roomId, message));
+    }
+
+    public void forwardMessage(String node, String roomId, ForwardedMessage message) {
+        try {
+            restTemplate.postForEntity(node + "/internal/rooms/{roomId}/messages", message, Void.class, roomId);
+        } catch (RestClientException e) {
+            log.warn("Failed to forward {} to {}: {}", message.destination(), node, e.getMessage());
+        }
+    }
+
+    /**
+     * Transfers ownership of the rooms to the node; throws when the node did not accept them. Blocking, and
+     * called on the rooms' shard.
+     */
+    public void handoff(String node, List<Room> rooms) {
+        restTemplate.postForEntity(node + "/internal/rooms/handoff", rooms, Void.class);
+    }
+
+    public void reportPresenceAsync(String node, List<PresenceReport> reports) {
+        executor.execute(() -> {
+            try {
+                restTemplate.postForEntity(node + "/internal/presence", reports, Void.class);
+            } catch (RestClientException e) {
+                log.warn("Failed to report presence of {} users to {}: {}", reports.size(), node, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        for (ExecutorService lane : forwardingLanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.syncwatchservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.ClusterProperties;
+import org.example.syncwatchservice.model.Room;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Probes the configured nodes, rebuilds the ring when a node joins or leaves and hands rooms this node no
+ * longer owns to their new owner.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "true")
+public class ClusterMembership {
+
+    private final ClusterProperties properties;
+    private final ClusterClient clusterClient;
+    private final ConsistentHashRoomRegistry roomRegistry;
+    private final RoomService roomService;
+    private final RoomExecutor roomExecutor;
+
+    private final Set<String> handoffsInFlight = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${app.cluster.probe-interval:5000}")
+    public void probe() {
+        // Pinged concurrently on the cluster client's threads so one slow node costs one timeout, not one each.
+        Map<String, CompletableFuture<Boolean>> pings = new LinkedHashMap<>();
+        for (String node : properties.getNodes()) {
+            pings.put(node, clusterClient.pingAsync(node));
+        }
+
+        List<String> live = new ArrayList<>();
+        pings.forEach((node, ping) -> {
+            if (ping.join()) {
+                live.add(node);
+            }
+        });
+
+        roomRegistry.updateMembers(live);
+        rebalance();
+    }
+
+    // Runs on every probe rather than only on changes so a failed handoff is retried.
+    private void rebalance() {
+        Map<Integer, List<String>> movingByShard = new HashMap<>();
+        for (Room room : List.copyOf(roomRegistry.localRooms())) {
+            String roomId = room.getId();
+            if (!roomRegistry.isLocal(roomId) && handoffsInFlight.add(roomId)) {
+                movingByShard.computeIfAbsent(roomExecutor.shardOf(roomId), shard -> new ArrayList<>()).add(roomId);
+            }
+        }
+        movingByShard.values().forEach(this::handoff);
+    }
+
+    /**
+     * Snapshots, ships and releases the rooms of one shard in a single task on that shard, so no command can be
+     * applied between the snapshot and the release and then lost with the released room. The shard waits for one
+     * request per new owner, bounded by {@code app.cluster.request-timeout}, and only while membership changes.
+     */
+    private void handoff(List<String> roomIds) {
+        roomExecutor.<Void>submit(roomIds.getFirst(), () -> {
+            Map<String, List<Room>> roomsByOwner = new LinkedHashMap<>();
+            for (String roomId : roomIds) {
+                Optional<String> owner = roomRegistry.ownerOf(roomId);
+                Optional<Room> room = roomRegistry.get(roomId);
+                if (owner.isPresent() && room.isPresent()) {
+                    roomsByOwner.computeIfAbsent(owner.get(), node -> new ArrayList<>()).add(room.get());
+                }
+            }
+
+            roomsByOwner.forEach((owner, rooms) -> {
+                try {
+                    clusterClient.handoff(owner, rooms);
+                } catch (RestClientException e) {
+                    log.warn("Failed to hand {} rooms off to {}, keeping them for now: {}",
+                            rooms.size(), owner, e.getMessage());
+                    return;
+                }
+                for (Room room : rooms) {
+                    roomService.releaseRoom(room.getId());
+                }
+                log.info("Handed {} rooms off to {}", rooms.size(), owner);
+            });
+            return null;
+        }).whenComplete((ignored, e) -> {
+            roomIds.forEach(handoffsInFlight::remove);
+            if (e != null) {
+                log.warn("Room handoff failed", e);
+            }
+        });
+    }
+}
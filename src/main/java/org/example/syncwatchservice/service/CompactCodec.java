@@ -0,0 +1,135 @@
+package org.example.syncwatchservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.syncwatchservice.message.PingCommand;
+import org.example.syncwatchservice.message.PlaybackCommand;
+import org.example.syncwatchservice.message.PongFrame;
+import org.example.syncwatchservice.message.SyncFrame;
+import org.example.syncwatchservice.message.UserCommand;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Fixed-layout big-endian encoding for the high-frequency room frames. Every frame starts with a type byte;
+ * user ids are replaced by {@link UserHandles} handles. Inbound types are only accepted on the destination they
+ * belong to, so a TIME_UPDATE cannot be decoded into the command of a play, pause or seek.
+ *
+ * <pre>
+ * SYNC        type:1 action:1 userHandle:4 currentTime:8 playbackRate:4 serverTime:8
+ * PONG        type:1 clientTime:8 serverReceiveTime:8 serverSendTime:8
+ * TIME_UPDATE type:1 currentTime:8
+ * PING        type:1 clientTime:8
+ * HEARTBEAT   type:1
+ * </pre>
+ * SYNC leaves out {@link SyncFrame#timestamp()}, the wall-clock send time: clients take their clock offset from
+ * PONG frames and place the position with {@code serverTime}, so the field is only informative in JSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class CompactCodec {
+
+    /**
+     * Message header carrying the compact encoding of an outbound frame next to its JSON payload.
+     */
+    public static final String PAYLOAD_HEADER = "compactPayload";
+
+    public static final byte SYNC = 1;
+    public static final byte PONG = 2;
+    public static final byte TIME_UPDATE = 3;
+    public static final byte PING = 4;
+    public static final byte HEARTBEAT = 5;
+
+    private static final int SYNC_LENGTH = 26;
+    private static final int PONG_LENGTH = 25;
+    private static final List<String> ACTIONS = List.of("play", "pause", "seek");
+
+    private final UserHandles userHandles;
+
+    public boolean supports(Class<?> type) {
+        return type == PlaybackCommand.class || type == PingCommand.class || type == UserCommand.class;
+    }
+
+    /**
+     * Returns the compact form of the frame, or null when the frame type has no compact layout.
+     */
+    public byte[] encode(Object frame) {
+        if (frame instanceof SyncFrame sync) {
+            int action = ACTIONS.indexOf(sync.action());
+            if (action < 0) {
+                return null;
+            }
+            return ByteBuffer.allocate(SYNC_LENGTH)
+                    .put(SYNC)
+                    .put((byte) action)
+                    .putInt(userHandles.handleOf(sync.userId()))
+                    .putDouble(sync.currentTime())
+                    .putFloat((float) sync.playbackRate())
+                    .putLong(sync.serverTime())
+                    .array();
+        }
+        if (frame instanceof PongFrame pong) {
+            return ByteBuffer.allocate(PONG_LENGTH)
+                    .put(PONG)
+                    .putLong(pong.clientTime())
+                    .putLong(pong.serverReceiveTime())
+                    .putLong(pong.serverSendTime())
+                    .array();
+        }
+        return null;
+    }
+
+    /**
+     * Decodes an inbound frame sent by {@code userId} to {@code destination}, or returns null when the bytes do
+     * not match the target type or were sent to a destination their type does not belong to.
+     */
+    public Object decode(byte[] payload, String destination, Class<?> targetType, String userId) {
+        if (payload.length == 0 || userId == null || destination == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte type = buffer.get();
+
+        if (type == TIME_UPDATE && targetType == PlaybackCommand.class && destination.endsWith("/timeUpdate")
+                && buffer.remaining() >= Double.BYTES) {
+            return new PlaybackCommand(userId, buffer.getDouble(), null);
+        }
+        if (type == PING && targetType == PingCommand.class && destination.endsWith("/ping")
+                && buffer.remaining() >= Long.BYTES) {
+            return new PingCommand(userId, buffer.getLong());
+        }
+        if (type == HEARTBEAT && targetType == UserCommand.class && destination.endsWith("/heartbeat")) {
+            return new UserCommand(userId, null);
+        }
+        return null;
+    }
+
+    /**
+     * Reads back an outbound frame the way a Java client would; the sender of a SYNC is null when their handle
+     * is no longer live, and its timestamp is 0 as the compact form does not carry it.
+     */
+    public Object decodeFrame(byte[] payload) {
+        if (payload.length == 0) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte type = buffer.get();
+
+        if (type == SYNC && payload.length == SYNC_LENGTH) {
+            int action = buffer.get();
+            if (action < 0 || action >= ACTIONS.size()) {
+                return null;
+            }
+            String userId = userHandles.userIdOf(buffer.getInt());
+            return new SyncFrame(ACTIONS.get(action), buffer.getDouble(), buffer.getFloat(), buffer.getLong(),
+                    userId, 0L);
+        }
+        if (type == PONG && payload.length == PONG_LENGTH) {
+            return new PongFrame(buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+        return null;
+    }
+}
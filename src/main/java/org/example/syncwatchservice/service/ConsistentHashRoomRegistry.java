@@ -0,0 +1,127 @@
+package org.example.syncwatchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.ClusterProperties;
+import org.example.syncwatchservice.model.Room;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each room to one node of a consistent-hash ring. Rooms owned here live in memory; rooms owned by
+ * other nodes are read through {@link ClusterClient}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "true")
+public class ConsistentHashRoomRegistry implements RoomRegistry {
+
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final ClusterClient clusterClient;
+    private final String self;
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring;
+
+    public ConsistentHashRoomRegistry(ClusterProperties properties, ClusterClient clusterClient) {
+        this.clusterClient = clusterClient;
+        this.self = Objects.requireNonNull(properties.getSelf(), "app.cluster.self must be set when clustering is enabled");
+        this.virtualNodes = properties.getVirtualNodes();
+
+        Set<String> nodes = new HashSet<>(properties.getNodes());
+        nodes.add(self);
+        this.ring = new ConsistentHashRing(nodes, virtualNodes);
+        log.info("Cluster node {} starting with members {}", self, ring.nodes());
+    }
+
+    /**
+     * Replaces the ring when the set of live nodes changed; returns whether it did.
+     */
+    public boolean updateMembers(Collection<String> liveNodes) {
+        Set<String> nodes = new HashSet<>(liveNodes);
+        nodes.add(self);
+        if (nodes.equals(ring.nodes())) {
+            return false;
+        }
+        log.info("Cluster membership changed from {} to {}", ring.nodes(), nodes);
+        ring = new ConsistentHashRing(nodes, virtualNodes);
+        return true;
+    }
+
+    public Set<String> members() {
+        return ring.nodes();
+    }
+
+    @Override
+    public String newRoomId() {
+        // Ids are drawn until one lands on this node, so a freshly created room never needs forwarding.
+        while (true) {
+            String roomId = UUID.randomUUID().toString().substring(0, 8);
+            if (isLocal(roomId) && !rooms.containsKey(roomId)) {
+                return roomId;
+            }
+        }
+    }
+
+    @Override
+    public boolean isLocal(String roomId) {
+        return self.equals(ring.ownerOf(roomId));
+    }
+
+    @Override
+    public Optional<String> ownerOf(String roomId) {
+        String owner = ring.ownerOf(roomId);
+        return self.equals(owner) ? Optional.empty() : Optional.ofNullable(owner);
+    }
+
+    @Override
+    public Optional<Room> get(String roomId) {
+        return Optional.ofNullable(rooms.get(roomId));
+    }
+
+    @Override
+    public Optional<Room> fetchRemote(String roomId) {
+        return ownerOf(roomId).flatMap(owner -> clusterClient.fetchRoom(owner, roomId));
+    }
+
+    @Override
+    public void put(Room room) {
+        rooms.put(room.getId(), room);
+    }
+
+    @Override
+    public Room remove(String roomId) {
+        return rooms.remove(roomId);
+    }
+
+    @Override
+    public boolean remove(String roomId, Room room) {
+        return rooms.remove(roomId, room);
+    }
+
+    @Override
+    public Collection<Room> localRooms() {
+        return Collections.unmodifiableCollection(rooms.values());
+    }
+
+    @Override
+    public Collection<Room> allRooms() {
+        List<Room> all = new ArrayList<>(rooms.values());
+        for (String node : ring.nodes()) {
+            if (!self.equals(node)) {
+                all.addAll(clusterClient.fetchRooms(node));
+            }
+        }
+        return all;
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.syncwatchservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Sends frames as JSON serialized once up front. The broker fans the same payload bytes out to every
+ * subscriber, so the message converter chain is skipped entirely on the hot sync path. Frames with a
+ * compact layout also carry that encoding, which {@link org.example.syncwatchservice.config.CompactEncodingInterceptor}
+ * substitutes for sessions that negotiated it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FrameSender {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final CompactCodec compactCodec;
+
+    public void send(String destination, Object frame) {
+        byte[] payload = serialize(frame);
+        if (payload != null) {
+            messagingTemplate.send(destination, toMessage(payload, compactCodec.encode(frame)));
+        }
+    }
+
+    public void sendToUser(String userId, String destination, Object frame) {
+        send(messagingTemplate.getUserDestinationPrefix() + userId + destination, frame);
+    }
+
+    public byte[] serialize(Object frame) {
+        try {
+            return objectMapper.writeValueAsBytes(frame);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {}", frame.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
+    private static Message<byte[]> toMessage(byte[] payload, byte[] compactPayload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (compactPayload != null) {
+            accessor.setHeader(CompactCodec.PAYLOAD_HEADER, compactPayload);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
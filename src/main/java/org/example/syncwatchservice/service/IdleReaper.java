@@ -0,0 +1,167 @@
+package org.example.syncwatchservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.message.UserLeftFrame;
+import org.example.syncwatchservice.model.MemberKey;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Removes users that went silent and rooms nobody touched for a while, covering clients that vanished without
+ * sending {@code /leave}. Deadlines live in timing wheels, so each tick only visits what is about to expire.
+ */
+@Slf4j
+@Component
+public class IdleReaper {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final RoomService roomService;
+    private final RoomRegistry roomRegistry;
+    private final RoomExecutor roomExecutor;
+    private final FrameSender frameSender;
+    private final long userTimeout;
+    private final long roomIdleTimeout;
+    private final long disconnectGrace;
+    private final TimingWheel<MemberKey> users;
+    private final TimingWheel<String> rooms;
+    private final Counter expiredUsers;
+    private final Counter expiredRooms;
+
+    public IdleReaper(RoomService roomService,
+                      RoomRegistry roomRegistry,
+                      RoomExecutor roomExecutor,
+                      FrameSender frameSender,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.reaper.tick-interval:1000}") long tickInterval,
+                      @Value("${app.reaper.user-timeout:90s}") Duration userTimeout,
+                      @Value("${app.reaper.room-idle-timeout:30m}") Duration roomIdleTimeout,
+                      @Value("${app.reaper.disconnect-grace:15s}") Duration disconnectGrace) {
+        this.roomService = roomService;
+        this.roomRegistry = roomRegistry;
+        this.roomExecutor = roomExecutor;
+        this.frameSender = frameSender;
+        this.userTimeout = userTimeout.toMillis();
+        this.roomIdleTimeout = roomIdleTimeout.toMillis();
+        this.disconnectGrace = disconnectGrace.toMillis();
+
+        long now = System.currentTimeMillis();
+        this.users = new TimingWheel<>(tickInterval, WHEEL_SIZE, WHEEL_LEVELS, now);
+        this.rooms = new TimingWheel<>(tickInterval, WHEEL_SIZE, WHEEL_LEVELS, now);
+
+        Gauge.builder("reaper.tracked", users, TimingWheel::size).tag("kind", "user").register(meterRegistry);
+        Gauge.builder("reaper.tracked", rooms, TimingWheel::size).tag("kind", "room").register(meterRegistry);
+        this.expiredUsers = Counter.builder("reaper.expired").tag("kind", "user").register(meterRegistry);
+        this.expiredRooms = Counter.builder("reaper.expired").tag("kind", "room").register(meterRegistry);
+    }
+
+    /**
+     * Records activity of a user; also keeps the room alive. Only members of the room are tracked.
+     */
+    public void userSeen(String roomId, String userId) {
+        User user = member(roomId, userId);
+        if (user != null) {
+            userSeen(roomId, user);
+        } else {
+            rooms.schedule(roomId, System.currentTimeMillis() + roomIdleTimeout);
+        }
+    }
+
+    /**
+     * Records activity of a member the caller already looked up; allocates nothing once the member is tracked.
+     */
+    public void userSeen(String roomId, User user) {
+        long now = System.currentTimeMillis();
+        users.schedule(keyOf(roomId, user), now + userTimeout);
+        rooms.schedule(roomId, now + roomIdleTimeout);
+    }
+
+    /**
+     * Stops tracking a user; call before removing them from the room, while their key can still be found.
+     */
+    public void userLeft(String roomId, String userId) {
+        User user = member(roomId, userId);
+        users.cancel(user != null ? keyOf(roomId, user) : new MemberKey(roomId, userId));
+    }
+
+    /**
+     * Starts tracking a room and its users that arrived from another node.
+     */
+    public void roomAdopted(Room room) {
+        for (User user : room.getUsers()) {
+            userSeen(room.getId(), user);
+        }
+        rooms.schedule(room.getId(), System.currentTimeMillis() + roomIdleTimeout);
+    }
+
+    /**
+     * Shortens the deadline of a user whose last session closed; a reload reconnects within the grace period.
+     */
+    public void userDisconnected(String roomId, String userId) {
+        User user = member(roomId, userId);
+        if (user != null) {
+            users.schedule(keyOf(roomId, user), System.currentTimeMillis() + disconnectGrace);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reaper.tick-interval:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (MemberKey key : users.advance(now)) {
+            roomExecutor.execute(key.roomId(), () -> expireUser(key));
+        }
+        for (String roomId : rooms.advance(now)) {
+            roomExecutor.execute(roomId, () -> expireRoom(roomId));
+        }
+    }
+
+    private void expireUser(MemberKey key) {
+        if (!roomService.leaveRoom(key.roomId(), key.userId())) {
+            return;
+        }
+        expiredUsers.increment();
+        log.info("Expired silent user {} from room {}", key.userId(), key.roomId());
+
+        roomService.getRoomById(key.roomId()).ifPresentOrElse(room -> {
+            frameSender.send("/topic/room/" + room.getId() + "/users", room.getUsers());
+            frameSender.send("/topic/room/" + room.getId() + "/userLeft", new UserLeftFrame(key.userId()));
+        }, () -> rooms.cancel(key.roomId()));
+    }
+
+    private void expireRoom(String roomId) {
+        Room room = roomRegistry.get(roomId).orElse(null);
+        if (room == null) {
+            return;
+        }
+        for (User user : room.getUsers()) {
+            users.cancel(keyOf(roomId, user));
+        }
+        roomService.deleteRoom(roomId);
+        expiredRooms.increment();
+        log.info("Expired idle room {}", roomId);
+    }
+
+    private User member(String roomId, String userId) {
+        Room room = roomRegistry.get(roomId).orElse(null);
+        return room != null ? room.getUser(userId) : null;
+    }
+
+    // The same User can sit in several rooms, so a key made for another room is replaced rather than reused.
+    private static MemberKey keyOf(String roomId, User user) {
+        MemberKey key = user.getMemberKey();
+        if (key == null || !key.roomId().equals(roomId)) {
+            key = new MemberKey(roomId, user.getId());
+            user.setMemberKey(key);
+        }
+        return key;
+    }
+}
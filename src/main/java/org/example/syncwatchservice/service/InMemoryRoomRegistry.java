@@ -0,0 +1,69 @@
+package org.example.syncwatchservice.service;
+
+import org.example.syncwatchservice.model.Room;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(prefix = "app.cluster", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryRoomRegistry implements RoomRegistry {
+
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+
+    @Override
+    public String newRoomId() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public boolean isLocal(String roomId) {
+        return true;
+    }
+
+    @Override
+    public Optional<String> ownerOf(String roomId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Room> get(String roomId) {
+        return Optional.ofNullable(rooms.get(roomId));
+    }
+
+    @Override
+    public Optional<Room> fetchRemote(String roomId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(Room room) {
+        rooms.put(room.getId(), room);
+    }
+
+    @Override
+    public Room remove(String roomId) {
+        return rooms.remove(roomId);
+    }
+
+    @Override
+    public boolean remove(String roomId, Room room) {
+        return rooms.remove(roomId, room);
+    }
+
+    @Override
+    public Collection<Room> localRooms() {
+        return Collections.unmodifiableCollection(rooms.values());
+    }
+
+    @Override
+    public Collection<Room> allRooms() {
+        return localRooms();
+    }
+}
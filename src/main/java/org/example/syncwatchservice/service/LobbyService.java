@@ -0,0 +1,88 @@
+package org.example.syncwatchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.ClusterProperties;
+import org.example.syncwatchservice.model.LobbyBatch;
+import org.example.syncwatchservice.model.LobbyDelta;
+import org.example.syncwatchservice.model.LobbySnapshot;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.RoomSummary;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes lobby changes of the rooms this node owns. Every node numbers its own batches, so clients track one
+ * sequence per node; a room's changes always come from its owner.
+ */
+@Slf4j
+@Service
+public class LobbyService {
+
+    public static final String LOBBY_TOPIC = "/topic/lobby";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final String node;
+
+    // Guarded by this; one entry per room so a burst of changes collapses into its net effect.
+    private final Map<String, LobbyDelta> pending = new LinkedHashMap<>();
+    private long sequence;
+
+    public LobbyService(SimpMessagingTemplate messagingTemplate, ClusterProperties clusterProperties) {
+        this.messagingTemplate = messagingTemplate;
+        this.node = clusterProperties.isEnabled() ? clusterProperties.getSelf() : "local";
+    }
+
+    public synchronized void roomCreated(Room room) {
+        pending.put(room.getId(), new LobbyDelta(LobbyDelta.Type.ROOM_CREATED, room.getId(), RoomSummary.of(room)));
+    }
+
+    public synchronized void roomUpdated(Room room) {
+        LobbyDelta existing = pending.get(room.getId());
+        LobbyDelta.Type type = existing != null && existing.getType() == LobbyDelta.Type.ROOM_CREATED
+                ? LobbyDelta.Type.ROOM_CREATED
+                : LobbyDelta.Type.ROOM_UPDATED;
+        pending.put(room.getId(), new LobbyDelta(type, room.getId(), RoomSummary.of(room)));
+    }
+
+    public synchronized void roomDeleted(String roomId) {
+        LobbyDelta existing = pending.remove(roomId);
+        if (existing == null || existing.getType() != LobbyDelta.Type.ROOM_CREATED) {
+            pending.put(roomId, new LobbyDelta(LobbyDelta.Type.ROOM_DELETED, roomId, null));
+        }
+    }
+
+    /**
+     * Snapshot of this node's rooms. The sequence is read before the rooms: a batch flushed in between is then
+     * replayed over a snapshot that already reflects it, which is harmless, instead of being skipped.
+     */
+    public LobbySnapshot snapshot(Supplier<Collection<Room>> localRooms) {
+        long current;
+        synchronized (this) {
+            current = sequence;
+        }
+        return new LobbySnapshot(new LinkedHashMap<>(Map.of(node, current)),
+                localRooms.get().stream().map(RoomSummary::of).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${app.lobby.flush-interval:1000}")
+    public void flush() {
+        LobbyBatch batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LobbyBatch(node, ++sequence, new ArrayList<>(pending.values()));
+            pending.clear();
+        }
+
+        log.debug("Publishing lobby batch {} with {} changes", batch.getSequence(), batch.getDeltas().size());
+        messagingTemplate.convertAndSend(LOBBY_TOPIC, batch);
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Slf4j
 @Service
@@ -14,10 +16,16 @@ import java.util.Optional;
 public class MovieService {
 
     private final StorageService storageService;
+    private final CatalogCache catalogCache;
+    private final ExecutorService storageExecutor;
 
     public List<Movie> getAllMovies() {
-        log.debug("Fetching all movies from storage service");
-        return storageService.getAllMovies();
+        log.debug("Fetching all movies from catalog cache");
+        return catalogCache.getAllMovies();
+    }
+
+    public CompletableFuture<List<Movie>> getAllMoviesAsync() {
+        return CompletableFuture.supplyAsync(this::getAllMovies, storageExecutor);
     }
 
     public Optional<Movie> getMovieById(Long movieId) {
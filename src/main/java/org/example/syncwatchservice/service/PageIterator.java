@@ -0,0 +1,89 @@
+package org.example.syncwatchservice.service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+
+/**
+ * Iterates over every element of a paged storage API resource. The first page is fetched on the
+ * caller's thread to learn the page count; later pages are fetched on the executor, keeping at most
+ * {@code prefetchWindow} requests in flight ahead of the consumer.
+ */
+class PageIterator<T> implements Iterator<T> {
+
+    private final IntFunction<StorageService.PageResponse<T>> pageFetcher;
+    private final Executor executor;
+    private final int prefetchWindow;
+    private final Deque<CompletableFuture<StorageService.PageResponse<T>>> pending = new ArrayDeque<>();
+
+    private Iterator<T> current;
+    private int totalPages;
+    private int nextPage;
+
+    PageIterator(IntFunction<StorageService.PageResponse<T>> pageFetcher, Executor executor, int prefetchWindow) {
+        this.pageFetcher = pageFetcher;
+        this.executor = executor;
+        this.prefetchWindow = Math.max(1, prefetchWindow);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (current == null) {
+            StorageService.PageResponse<T> first = pageFetcher.apply(0);
+            totalPages = first != null ? first.getTotalPages() : 0;
+            nextPage = 1;
+            current = content(first);
+            prefetch();
+        }
+
+        while (!current.hasNext()) {
+            CompletableFuture<StorageService.PageResponse<T>> next = pending.poll();
+            if (next == null) {
+                return false;
+            }
+            current = content(await(next));
+            prefetch();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    private void prefetch() {
+        while (pending.size() < prefetchWindow && nextPage < totalPages) {
+            int page = nextPage++;
+            pending.add(CompletableFuture.supplyAsync(() -> pageFetcher.apply(page), executor));
+        }
+    }
+
+    private StorageService.PageResponse<T> await(CompletableFuture<StorageService.PageResponse<T>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            pending.forEach(future -> future.cancel(false));
+            pending.clear();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Iterator<T> content(StorageService.PageResponse<T> page) {
+        List<T> content = page != null ? page.getContent() : null;
+        return content != null ? content.iterator() : Collections.emptyIterator();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.syncwatchservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.model.PresenceDelta;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.UserPresence;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresenceAggregator {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomService roomService;
+
+    private final Map<String, DirtyUsers> dirtyRooms = new ConcurrentHashMap<>();
+
+    public void userChanged(String roomId, String userId) {
+        dirtyRooms.compute(roomId, (id, dirty) -> {
+            DirtyUsers users = dirty != null ? dirty : new DirtyUsers();
+            users.userIds.add(userId);
+            return users;
+        });
+    }
+
+    public void allUsersChanged(String roomId) {
+        dirtyRooms.compute(roomId, (id, dirty) -> {
+            DirtyUsers users = dirty != null ? dirty : new DirtyUsers();
+            users.all = true;
+            return users;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.tick-interval:1000}")
+    public void flush() {
+        for (String roomId : dirtyRooms.keySet()) {
+            DirtyUsers dirty = dirtyRooms.remove(roomId);
+            if (dirty == null) {
+                continue;
+            }
+
+            roomService.getRoomById(roomId).ifPresent(room -> publish(room, dirty));
+        }
+    }
+
+    private void publish(Room room, DirtyUsers dirty) {
+        List<UserPresence> changed = room.getUsers().stream()
+                .filter(user -> dirty.all || dirty.userIds.contains(user.getId()))
+                .map(UserPresence::of)
+                .toList();
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        log.debug("Publishing presence delta for room {} with {} users", room.getId(), changed.size());
+        messagingTemplate.convertAndSend("/topic/room/" + room.getId() + "/presence",
+                new PresenceDelta(System.currentTimeMillis(), changed));
+    }
+
+    // Only mutated inside ConcurrentHashMap.compute and read after removal from the map.
+    private static class DirtyUsers {
+        private final Set<String> userIds = new HashSet<>();
+        private boolean all;
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.syncwatchservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.message.RoomCommand;
+import org.example.syncwatchservice.model.User;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for room mutations issued over HTTP. Commands run on the room's shard when this node owns the
+ * room and are forwarded to the owner otherwise.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomCommands {
+
+    private final RoomService roomService;
+    private final RoomRegistry roomRegistry;
+    private final RoomExecutor roomExecutor;
+    private final IdleReaper idleReaper;
+    private final ObjectProvider<ClusterClient> clusterClient;
+    private final ExecutorService storageExecutor;
+
+    public boolean join(String roomId, User user) {
+        Optional<String> owner = roomRegistry.ownerOf(roomId);
+        if (owner.isPresent()) {
+            return forward(owner.get(), roomId,
+                    new RoomCommand(RoomCommand.Type.JOIN, user.getId(), user.getUsername(), null));
+        }
+        return roomExecutor.submit(roomId, () -> joinLocally(roomId, user)).join();
+    }
+
+    public boolean leave(String roomId, String userId) {
+        return execute(roomId, new RoomCommand(RoomCommand.Type.LEAVE, userId, null, null));
+    }
+
+    public boolean switchEpisode(String roomId, Long episodeId, String userId) {
+        return execute(roomId, new RoomCommand(RoomCommand.Type.SWITCH_EPISODE, userId, null, episodeId));
+    }
+
+    public boolean nextEpisode(String roomId, String userId) {
+        return execute(roomId, new RoomCommand(RoomCommand.Type.NEXT_EPISODE, userId, null, null));
+    }
+
+    public boolean previousEpisode(String roomId, String userId) {
+        return execute(roomId, new RoomCommand(RoomCommand.Type.PREVIOUS_EPISODE, userId, null, null));
+    }
+
+    public boolean execute(String roomId, RoomCommand command) {
+        Optional<String> owner = roomRegistry.ownerOf(roomId);
+        if (owner.isPresent()) {
+            return forward(owner.get(), roomId, command);
+        }
+        return executeLocally(roomId, command);
+    }
+
+    /**
+     * Applies a command on this node without forwarding; used for commands that were already forwarded once.
+     */
+    public boolean executeLocally(String roomId, RoomCommand command) {
+        return switch (command.type()) {
+            case JOIN -> roomExecutor.submit(roomId,
+                    () -> joinLocally(roomId, new User(command.userId(), command.username()))).join();
+            case LEAVE -> roomExecutor.submit(roomId, () -> leaveLocally(roomId, command.userId())).join();
+            case SWITCH_EPISODE, NEXT_EPISODE, PREVIOUS_EPISODE ->
+                    switchEpisodeLocally(roomId, command, switched -> { }).join();
+        };
+    }
+
+    /**
+     * Switches episode on this node. The target is looked up in the catalog on the storage executor; only the
+     * state change and then {@code onShard} run on the room's shard, so a slow catalog never stalls the shard.
+     */
+    public CompletableFuture<Boolean> switchEpisodeLocally(String roomId, RoomCommand command,
+                                                           Consumer<Boolean> onShard) {
+        Supplier<Optional<RoomService.EpisodeTarget>> resolve = switch (command.type()) {
+            case NEXT_EPISODE -> () -> roomService.resolveNextEpisode(roomId);
+            case PREVIOUS_EPISODE -> () -> roomService.resolvePreviousEpisode(roomId);
+            default -> () -> roomService.resolveEpisode(roomId, command.episodeId());
+        };
+
+        return CompletableFuture.supplyAsync(resolve, storageExecutor)
+                .exceptionally(e -> {
+                    log.warn("Failed to resolve episode for room {}", roomId, e);
+                    return Optional.empty();
+                })
+                .thenCompose(target -> roomExecutor.submit(roomId, () -> {
+                    boolean switched = target.isPresent()
+                            && roomService.applyEpisode(roomId, target.get(), command.userId());
+                    onShard.accept(switched);
+                    return switched;
+                }));
+    }
+
+    private boolean joinLocally(String roomId, User user) {
+        boolean joined = roomService.joinRoom(roomId, user);
+        if (joined) {
+            idleReaper.userSeen(roomId, user.getId());
+        }
+        return joined;
+    }
+
+    private boolean leaveLocally(String roomId, String userId) {
+        idleReaper.userLeft(roomId, userId);
+        return roomService.leaveRoom(roomId, userId);
+    }
+
+    private boolean forward(String owner, String roomId, RoomCommand command) {
+        ClusterClient client = clusterClient.getIfAvailable();
+        return client != null && client.sendCommand(owner, roomId, command);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.syncwatchservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs room commands on single-threaded shards chosen by room id, so all mutations of one room
+ * happen in arrival order on one thread and need no locking.
+ */
+@Slf4j
+@Component
+public class RoomExecutor implements DisposableBean {
+
+    private final Shard[] shards;
+
+    public RoomExecutor(@Value("${app.rooms.shards:0}") int shardCount, MeterRegistry meterRegistry) {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, meterRegistry);
+        }
+        log.info("Started room executor with {} shards", count);
+    }
+
+    public void execute(String roomId, Runnable command) {
+        shardFor(roomId).submit(command);
+    }
+
+    public <T> CompletableFuture<T> submit(String roomId, Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        shardFor(roomId).submit(() -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable e) {
+                // Callers may block on the future, so it has to complete even when the command hits an Error.
+                result.completeExceptionally(e);
+                throw e;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Index of the shard running the room's commands; rooms with the same index share one thread.
+     */
+    public int shardOf(String roomId) {
+        return Math.floorMod(roomId.hashCode(), shards.length);
+    }
+
+    @Override
+    public void destroy() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+    }
+
+    private Shard shardFor(String roomId) {
+        return shards[shardOf(roomId)];
+    }
+
+    private static class Shard {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final Timer waitTimer;
+        private final Timer processingTimer;
+
+        Shard(int index, MeterRegistry meterRegistry) {
+            this.index = index;
+            BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue,
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "room-shard-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+            String shard = String.valueOf(index);
+            Gauge.builder("rooms.shard.queue.depth", queue, BlockingQueue::size)
+                    .tag("shard", shard)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("rooms.shard.command.wait")
+                    .tag("shard", shard)
+                    .register(meterRegistry);
+            this.processingTimer = Timer.builder("rooms.shard.command.processing")
+                    .tag("shard", shard)
+                    .register(meterRegistry);
+        }
+
+        void submit(Runnable command) {
+            long enqueuedAt = System.nanoTime();
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    log.error("Room command failed on shard {}", index, e);
+                } finally {
+                    processingTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package org.example.syncwatchservice.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.JournalProperties;
+import org.example.syncwatchservice.model.Episode;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of room mutations in memory-mapped segments, plus periodic JSON snapshots of all local
+ * rooms. Shards only enqueue entries; a single writer thread serializes and appends them.
+ * <p>
+ * Entries carry absolute values (new anchor, added user, removed room), so replaying a segment over a snapshot
+ * that already contains part of it converges to the same state. A snapshot is taken right after rolling to a
+ * new segment and is named after it; recovery loads the newest snapshot and replays that segment onwards.
+ */
+@Slf4j
+@Component
+public class RoomJournal implements DisposableBean {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".json";
+    private static final int BATCH_SIZE = 1024;
+    private static final long ROLL_TIMEOUT_SECONDS = 30;
+
+    private final JournalProperties properties;
+    private final ObjectMapper objectMapper;
+    private final RoomRegistry roomRegistry;
+    private final Path directory;
+    private final BlockingQueue<Object> queue;
+    private final AtomicLong entriesSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+    // Set when an entry is lost, so a snapshot already under way is followed by one that surely covers it.
+    private final AtomicBoolean snapshotAgain = new AtomicBoolean();
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("room-journal-snapshot").daemon().factory());
+    private final Counter entryCount;
+    private final Counter droppedEntries;
+    private final Counter failedEntries;
+    private final Counter logBytes;
+    private final Counter snapshotBytes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // Owned by the writer thread once started.
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentNumber;
+
+    public RoomJournal(JournalProperties properties, ObjectMapper objectMapper, RoomRegistry roomRegistry,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.roomRegistry = roomRegistry;
+        this.directory = Paths.get(properties.getDirectory());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.entryCount = Counter.builder("journal.entries").register(meterRegistry);
+        this.droppedEntries = Counter.builder("journal.dropped")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.failedEntries = Counter.builder("journal.dropped")
+                .tag("reason", "write-failed")
+                .register(meterRegistry);
+        this.logBytes = Counter.builder("journal.bytes.written")
+                .baseUnit("bytes")
+                .tag("kind", "log")
+                .register(meterRegistry);
+        this.snapshotBytes = Counter.builder("journal.bytes.written")
+                .baseUnit("bytes")
+                .tag("kind", "snapshot")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void roomCreated(Room room) {
+        append(new Entry(Type.CREATED, room.getId(), room, null, null, null, null, null, null, null));
+    }
+
+    public void roomRemoved(String roomId) {
+        append(new Entry(Type.REMOVED, roomId, null, null, null, null, null, null, null, null));
+    }
+
+    public void userJoined(String roomId, User user) {
+        append(new Entry(Type.JOINED, roomId, null, user.getId(), user.getUsername(), null, null, null, null, null));
+    }
+
+    public void userLeft(String roomId, String userId) {
+        append(new Entry(Type.LEFT, roomId, null, userId, null, null, null, null, null, null));
+    }
+
+    public void playback(Room room) {
+        append(new Entry(Type.PLAYBACK, room.getId(), null, room.getLastActionUserId(), null, room.getCurrentTime(),
+                room.isPlaying(), room.getPlaybackRate(), room.getAnchorTimestamp(), null));
+    }
+
+    public void episodeSwitched(Room room) {
+        append(new Entry(Type.EPISODE, room.getId(), null, room.getLastActionUserId(), null, null, null, null,
+                room.getAnchorTimestamp(), room.getCurrentEpisode()));
+    }
+
+    /**
+     * Rebuilds rooms from the newest snapshot and the segments after it, then starts the writer on a fresh
+     * segment. Must be called once at startup before any entry is appended.
+     */
+    public synchronized List<Room> recover() {
+        if (!isEnabled() || running) {
+            return List.of();
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Map<String, Room> rooms = new LinkedHashMap<>();
+
+            long snapshot = newest(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            if (snapshot >= 0) {
+                List<Room> snapshotRooms = objectMapper.readValue(
+                        directory.resolve(snapshotName(snapshot)).toFile(), new TypeReference<>() {
+                        });
+                snapshotRooms.forEach(room -> rooms.put(room.getId(), room));
+            }
+
+            long lastSegment = snapshot - 1;
+            boolean intact = true;
+            for (long number : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                if (number >= snapshot) {
+                    // Segments after a damaged entry are skipped but still counted, so none is overwritten.
+                    intact = intact && replay(directory.resolve(segmentName(number)), rooms);
+                    lastSegment = Math.max(lastSegment, number);
+                }
+            }
+
+            start(Math.max(lastSegment, snapshot) + 1);
+            if (!intact) {
+                // Get the next restart past the damaged segment.
+                log.warn("Recovered rooms up to the first damaged journal entry");
+                entriesSinceSnapshot.incrementAndGet();
+            }
+            return new ArrayList<>(rooms.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover room journal from " + directory, e);
+        }
+    }
+
+    /**
+     * Hands a snapshot to the snapshot thread, which waits for the writer to roll and serializes every room, so
+     * neither blocks the scheduler. Skipped when nothing was journaled since the last one or one is under way.
+     */
+    @Scheduled(fixedDelayString = "${app.journal.snapshot-interval:60000}")
+    public void snapshot() {
+        if (running && entriesSinceSnapshot.get() > 0 && snapshotPending.compareAndSet(false, true)) {
+            try {
+                snapshotExecutor.execute(this::writeSnapshot);
+            } catch (RejectedExecutionException e) {
+                // Shutting down.
+                snapshotPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Rolls to a new segment, writes every local room to a snapshot named after it and deletes the files the
+     * snapshot made obsolete. Waits a bounded time for the writer, so a stuck writer fails the snapshot instead
+     * of leaving it pending forever.
+     */
+    private void writeSnapshot() {
+        try {
+            snapshotAgain.set(false);
+            entriesSinceSnapshot.set(0);
+            CompletableFuture<Long> rolled = new CompletableFuture<>();
+            // Only this thread waits for room in the queue, never a room shard.
+            if (!queue.offer(rolled, ROLL_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new TimeoutException("Journal queue stayed full for " + ROLL_TIMEOUT_SECONDS + "s");
+            }
+            long first = rolled.get(ROLL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            byte[] bytes = objectMapper.writeValueAsBytes(List.copyOf(roomRegistry.localRooms()));
+            Path temp = directory.resolve(snapshotName(first) + ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, directory.resolve(snapshotName(first)),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            snapshotBytes.increment(bytes.length);
+
+            deleteBefore(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX, first);
+            deleteBefore(SEGMENT_PREFIX, SEGMENT_SUFFIX, first);
+            log.debug("Wrote room snapshot {} ({} bytes)", first, bytes.length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            entriesSinceSnapshot.incrementAndGet();
+            log.error("Failed to write room snapshot", e);
+        } finally {
+            snapshotPending.set(false);
+        }
+        // An entry lost while this snapshot ran may have been read before its change, so take another.
+        if (snapshotAgain.get()) {
+            snapshot();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        snapshotExecutor.shutdown();
+        snapshotExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void append(Entry entry) {
+        if (!running) {
+            return;
+        }
+        entriesSinceSnapshot.incrementAndGet();
+        if (!queue.offer(entry)) {
+            droppedEntries.increment();
+            log.warn("Journal queue full, dropped {} entry for room {}", entry.type(), entry.roomId());
+            coverLostEntry();
+        }
+    }
+
+    /**
+     * The snapshot captures the state a lost entry described, so take one now instead of waiting, or have the
+     * one under way run again.
+     */
+    private void coverLostEntry() {
+        snapshotAgain.set(true);
+        snapshot();
+    }
+
+    private void start(long firstSegment) throws IOException {
+        openSegment(firstSegment, segmentSize());
+        running = true;
+        writer = new Thread(this::drain, "room-journal");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Room journal writing to {} from segment {}", directory, firstSegment);
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (Object item : batch) {
+                    try {
+                        write(item);
+                    } catch (IOException | RuntimeException e) {
+                        failed(item, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        closeSegment();
+    }
+
+    private void failed(Object item, Exception e) {
+        if (item instanceof CompletableFuture<?> roll) {
+            log.error("Failed to roll journal segment {}", segmentNumber, e);
+            roll.completeExceptionally(e);
+            return;
+        }
+        Entry entry = (Entry) item;
+        failedEntries.increment();
+        log.error("Failed to journal {} entry for room {}", entry.type(), entry.roomId(), e);
+        entriesSinceSnapshot.incrementAndGet();
+        coverLostEntry();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(Object item) throws IOException {
+        if (item instanceof CompletableFuture<?> roll) {
+            closeSegment();
+            openSegment(segmentNumber + 1, segmentSize());
+            ((CompletableFuture<Long>) roll).complete(segmentNumber);
+            return;
+        }
+
+        byte[] payload = objectMapper.writeValueAsBytes(item);
+        int needed = Integer.BYTES + payload.length;
+        if (segment.remaining() < needed + Integer.BYTES) {
+            closeSegment();
+            openSegment(segmentNumber + 1, Math.max(segmentSize(), needed + Integer.BYTES));
+        }
+
+        // Length goes in last, so a torn write reads as the end of the segment.
+        int position = segment.position();
+        segment.put(position + Integer.BYTES, payload);
+        segment.putInt(position, payload.length);
+        segment.position(position + needed);
+
+        entryCount.increment();
+        logBytes.increment(needed);
+    }
+
+    private void openSegment(long number, long size) throws IOException {
+        channel = FileChannel.open(directory.resolve(segmentName(number)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segmentNumber = number;
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close journal segment {}", segmentNumber, e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Applies the entries of one segment up to its end; returns false when it stopped at a damaged entry.
+     */
+    private boolean replay(Path path, Map<String, Room> rooms) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            while (buffer.remaining() >= Integer.BYTES) {
+                int offset = buffer.position();
+                int length = buffer.getInt();
+                if (length == 0) {
+                    return true;
+                }
+                if (length < 0 || length > buffer.remaining()) {
+                    log.warn("Stopped replaying {} at offset {}: bad entry length {}", path, offset, length);
+                    return false;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                try {
+                    apply(objectMapper.readValue(payload, Entry.class), rooms);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Stopped replaying {} at offset {}: malformed entry", path, offset, e);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static void apply(Entry entry, Map<String, Room> rooms) {
+        if (entry.type() == Type.CREATED) {
+            rooms.put(entry.roomId(), entry.room());
+            return;
+        }
+        if (entry.type() == Type.REMOVED) {
+            rooms.remove(entry.roomId());
+            return;
+        }
+
+        Room room = rooms.get(entry.roomId());
+        if (room == null) {
+            return;
+        }
+        switch (entry.type()) {
+            case JOINED -> room.addUser(new User(entry.userId(), entry.username()));
+            case LEFT -> room.removeUser(entry.userId());
+            case PLAYBACK -> {
+                room.setPlaybackRate(entry.playbackRate());
+                room.anchor(entry.position(), entry.playing(), entry.timestamp());
+                room.setLastActionUserId(entry.userId());
+            }
+            case EPISODE -> {
+                room.setCurrentEpisodeId(entry.episode().getId());
+                room.setCurrentEpisode(entry.episode());
+                room.anchor(0.0, false, entry.timestamp());
+                room.setLastActionUserId(entry.userId());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private long segmentSize() {
+        return properties.getSegmentSize().toBytes();
+    }
+
+    private long newest(String prefix, String suffix) throws IOException {
+        List<Long> numbers = numbers(prefix, suffix);
+        return numbers.isEmpty() ? -1 : numbers.get(numbers.size() - 1);
+    }
+
+    private List<Long> numbers(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void deleteBefore(String prefix, String suffix, long number) throws IOException {
+        for (long older : numbers(prefix, suffix)) {
+            if (older < number) {
+                Files.deleteIfExists(directory.resolve(prefix + String.format("%020d", older) + suffix));
+            }
+        }
+    }
+
+    private static String segmentName(long number) {
+        return SEGMENT_PREFIX + String.format("%020d", number) + SEGMENT_SUFFIX;
+    }
+
+    private static String snapshotName(long number) {
+        return SNAPSHOT_PREFIX + String.format("%020d", number) + SNAPSHOT_SUFFIX;
+    }
+
+    enum Type {
+        CREATED, REMOVED, JOINED, LEFT, PLAYBACK, EPISODE
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Entry(Type type, String roomId, Room room, String userId, String username, Double position,
+                 Boolean playing, Double playbackRate, Long timestamp, Episode episode) {
+    }
+}
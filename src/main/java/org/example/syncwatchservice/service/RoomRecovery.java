@@ -0,0 +1,50 @@
+package org.example.syncwatchservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restores rooms from the journal on startup. Restored members count as disconnected until a session of theirs
+ * subscribes again, and the idle reaper removes the ones that never come back.
+ * <p>
+ * Restored rooms come back paused at their last anchored position: extrapolating a playing room from its old
+ * anchor would jump it forward by however long the node was down.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomRecovery implements InitializingBean {
+
+    private final RoomJournal roomJournal;
+    private final RoomService roomService;
+    private final IdleReaper idleReaper;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!roomJournal.isEnabled()) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        List<Room> rooms = roomJournal.recover();
+        long now = System.currentTimeMillis();
+        for (Room room : rooms) {
+            room.anchor(room.getCurrentTime(), false, now);
+            for (User user : room.getUsers()) {
+                user.setConnected(false);
+            }
+            roomService.restoreRoom(room);
+            idleReaper.roomAdopted(room);
+        }
+
+        log.info("Recovered {} rooms from the journal in {} ms",
+                rooms.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+}
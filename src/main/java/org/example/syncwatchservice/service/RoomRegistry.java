@@ -0,0 +1,46 @@
+package org.example.syncwatchservice.service;
+
+import org.example.syncwatchservice.model.Room;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Storage and ownership of rooms. Only the owner of a room mutates it; other nodes see read-only snapshots
+ * and forward commands to the owner.
+ */
+public interface RoomRegistry {
+
+    /**
+     * Generates an id for a new room that this node owns.
+     */
+    String newRoomId();
+
+    boolean isLocal(String roomId);
+
+    /**
+     * Base URL of the node owning the room, or empty when this node owns it.
+     */
+    Optional<String> ownerOf(String roomId);
+
+    /**
+     * Room owned by this node. Never leaves the process, so it is safe on room shards and channel threads.
+     */
+    Optional<Room> get(String roomId);
+
+    /**
+     * Fetches a read-only snapshot of a room another node owns. Blocks on a node-to-node request, so only request
+     * threads may call it, never room shards or channel threads. Empty when this node owns the room.
+     */
+    Optional<Room> fetchRemote(String roomId);
+
+    void put(Room room);
+
+    Room remove(String roomId);
+
+    boolean remove(String roomId, Room room);
+
+    Collection<Room> localRooms();
+
+    Collection<Room> allRooms();
+}
@@ -2,10 +2,10 @@ package org.example.syncwatchservice.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.model.CommandLog;
 import org.example.syncwatchservice.model.Episode;
 import org.example.syncwatchservice.model.Movie;
 import org.example.syncwatchservice.model.Room;
-import org.example.syncwatchservice.model.Season;
 import org.example.syncwatchservice.model.Series;
 import org.example.syncwatchservice.model.User;
 import org.springframework.stereotype.Service;
@@ -14,18 +14,26 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RoomService {
 
-    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final RoomRegistry roomRegistry;
+    private final Map<Long, Set<String>> roomIdsByMovie = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> roomIdsBySeries = new ConcurrentHashMap<>();
+    private final AtomicInteger totalUsers = new AtomicInteger();
     private final MovieService movieService;
     private final SeriesService seriesService;
+    private final SeriesEpisodeIndexService seriesEpisodeIndexService;
+    private final LobbyService lobbyService;
+    private final RoomJournal roomJournal;
 
     public Room createMovieRoom(String roomName, Long movieId, String hostId) {
         Optional<Movie> movieOpt = movieService.getMovieById(movieId);
@@ -33,9 +41,12 @@ public class RoomService {
             throw new IllegalArgumentException("Movie not found with id: " + movieId);
         }
 
-        String roomId = UUID.randomUUID().toString().substring(0, 8);
+        String roomId = roomRegistry.newRoomId();
         Room room = new Room(roomId, roomName, movieOpt.get(), hostId);
-        rooms.put(roomId, room);
+        roomRegistry.put(room);
+        addToIndex(roomIdsByMovie, room.getMovie().getId(), roomId);
+        lobbyService.roomCreated(room);
+        roomJournal.roomCreated(room);
 
         log.info("Created movie room {} for movie {} with host {}", roomId, movieOpt.get().getTitle(), hostId);
         return room;
@@ -52,10 +63,13 @@ public class RoomService {
             throw new IllegalArgumentException("No episodes found for series: " + seriesId);
         }
 
-        String roomId = UUID.randomUUID().toString().substring(0, 8);
+        String roomId = roomRegistry.newRoomId();
         Room room = new Room(roomId, roomName, seriesOpt.get(), firstEpisodeOpt.get().getId(), hostId);
         room.setCurrentEpisode(firstEpisodeOpt.get());
-        rooms.put(roomId, room);
+        roomRegistry.put(room);
+        addToIndex(roomIdsBySeries, room.getSeries().getId(), roomId);
+        lobbyService.roomCreated(room);
+        roomJournal.roomCreated(room);
 
         log.info("Created series room {} for series {} starting with episode S{}E{} with host {}",
                 roomId, seriesOpt.get().getTitle(),
@@ -66,17 +80,65 @@ public class RoomService {
     }
 
     public Optional<Room> getRoomById(String roomId) {
-        return Optional.ofNullable(rooms.get(roomId));
+        return roomRegistry.get(roomId);
+    }
+
+    /**
+     * Like {@link #getRoomById} but falls back to a snapshot from the owning node, which blocks on the network;
+     * for HTTP request threads only.
+     */
+    public Optional<Room> findRoom(String roomId) {
+        Optional<Room> room = roomRegistry.get(roomId);
+        return room.isPresent() ? room : roomRegistry.fetchRemote(roomId);
     }
 
     public List<Room> getAllRooms() {
-        return new ArrayList<>(rooms.values());
+        return new ArrayList<>(roomRegistry.allRooms());
+    }
+
+    /**
+     * Takes ownership of a room handed over by another node after the cluster membership changed.
+     */
+    public void adoptRoom(Room room) {
+        roomRegistry.put(room);
+        addToIndexes(room);
+        roomJournal.roomCreated(room);
+        log.info("Adopted room {} with {} users", room.getId(), room.getUserCount());
+    }
+
+    /**
+     * Drops a room whose ownership moved to another node; no lobby event since the room still exists.
+     */
+    public Optional<Room> releaseRoom(String roomId) {
+        Room room = roomRegistry.remove(roomId);
+        if (room != null) {
+            removeFromIndexes(room);
+            roomJournal.roomRemoved(roomId);
+            log.info("Released room {} to its new owner", roomId);
+        }
+        return Optional.ofNullable(room);
+    }
+
+    /**
+     * Puts a room recovered from the journal back in place on startup.
+     */
+    public void restoreRoom(Room room) {
+        roomRegistry.put(room);
+        addToIndexes(room);
+        lobbyService.roomCreated(room);
     }
 
     public boolean joinRoom(String roomId, User user) {
-        Room room = rooms.get(roomId);
+        Room room = localRoom(roomId);
         if (room != null) {
-            room.addUser(user);
+            if (room.addUser(user)) {
+                totalUsers.incrementAndGet();
+                lobbyService.roomUpdated(room);
+                roomJournal.userJoined(roomId, user);
+                long now = System.currentTimeMillis();
+                room.getCommandLog().record(CommandLog.Type.JOIN, user.getId(), room.getPositionAt(now),
+                        room.getPlaybackRate(), 0L, true, now);
+            }
             log.info("User {} joined room {}", user.getUsername(), roomId);
             return true;
         }
@@ -85,79 +147,155 @@ public class RoomService {
     }
 
     public boolean leaveRoom(String roomId, String userId) {
-        Room room = rooms.get(roomId);
+        Room room = localRoom(roomId);
         if (room != null) {
-            boolean removed = room.getUsers().removeIf(user -> user.getId().equals(userId));
+            boolean removed = room.removeUser(userId) != null;
 
             if (removed) {
+                totalUsers.decrementAndGet();
+                roomJournal.userLeft(roomId, userId);
+                long now = System.currentTimeMillis();
+                room.getCommandLog().record(CommandLog.Type.LEAVE, userId, room.getPositionAt(now),
+                        room.getPlaybackRate(), 0L, true, now);
                 log.info("User {} left room {}", userId, roomId);
             }
 
-            if (room.getUsers().isEmpty()) {
-                rooms.remove(roomId);
+            if (room.getUserCount() == 0 && roomRegistry.remove(roomId, room)) {
+                removeFromIndexes(room);
+                lobbyService.roomDeleted(roomId);
+                roomJournal.roomRemoved(roomId);
                 log.info("Deleted empty room: {}", roomId);
+            } else if (removed) {
+                lobbyService.roomUpdated(room);
             }
             return removed;
         }
         return false;
     }
 
-    public void updateRoomState(String roomId, double currentTime, boolean isPlaying, String userId) {
-        Room room = rooms.get(roomId);
+    public void updateRoomState(String roomId, double currentTime, boolean isPlaying, double playbackRate,
+                                String userId) {
+        Room room = localRoom(roomId);
         if (room != null) {
-            room.setCurrentTime(currentTime);
-            room.setPlaying(isPlaying);
+            boolean playingChanged = room.isPlaying() != isPlaying;
+            room.setPlaybackRate(playbackRate);
+            room.anchor(currentTime, isPlaying, System.currentTimeMillis());
             room.setLastActionUserId(userId);
+            roomJournal.playback(room);
+
+            if (playingChanged) {
+                lobbyService.roomUpdated(room);
+            }
 
             log.debug("Updated room {} state: time={}, playing={}, user={}",
                     roomId, currentTime, isPlaying, userId);
         }
     }
 
-    public void updateUserTime(String roomId, String userId, double currentTime) {
-        Room room = rooms.get(roomId);
-        if (room != null) {
-            room.getUsers().stream()
-                    .filter(user -> user.getId().equals(userId))
-                    .findFirst()
-                    .ifPresent(user -> {
-                        user.setCurrentTime(currentTime);
-                        user.setLastSeen(java.time.LocalDateTime.now());
-                    });
+    /**
+     * Records a member's own position; returns the member, or null when they are not in the room. Safe off the
+     * room's shard, as it only writes the member's volatile fields.
+     */
+    public User updateUserTime(String roomId, String userId, double currentTime) {
+        Room room = localRoom(roomId);
+        User user = room != null ? room.getUser(userId) : null;
+        if (user != null) {
+            user.setCurrentTime(currentTime);
+            user.setLastSeen(System.currentTimeMillis());
         }
+        return user;
+    }
+
+    /**
+     * Flags a member as connected or not; returns false when the user is not in the room.
+     */
+    public boolean setUserConnected(String roomId, String userId, boolean connected) {
+        Room room = localRoom(roomId);
+        User user = room != null ? room.getUser(userId) : null;
+        if (user == null || user.isConnected() == connected) {
+            return false;
+        }
+        user.setConnected(connected);
+        return true;
     }
 
     public void updateAllUsersTime(String roomId, double currentTime) {
-        Room room = rooms.get(roomId);
+        Room room = localRoom(roomId);
         if (room != null) {
-            room.getUsers().forEach(user -> {
+            long now = System.currentTimeMillis();
+            for (User user : room.getUsers()) {
                 user.setCurrentTime(currentTime);
-                user.setLastSeen(java.time.LocalDateTime.now());
-            });
+                user.setLastSeen(now);
+            }
         }
     }
 
     public boolean isHost(String roomId, String userId) {
-        Room room = rooms.get(roomId);
+        Room room = roomRegistry.get(roomId).orElse(null);
         return room != null && room.getHostId().equals(userId);
     }
 
     public void deleteRoom(String roomId) {
-        Room removed = rooms.remove(roomId);
+        Room removed = roomRegistry.remove(roomId);
         if (removed != null) {
+            removeFromIndexes(removed);
+            lobbyService.roomDeleted(roomId);
+            roomJournal.roomRemoved(roomId);
             log.info("Manually deleted room: {}", roomId);
         }
     }
 
-    public boolean switchEpisode(String roomId, Long episodeId, String userId) {
-        Room room = rooms.get(roomId);
+    /**
+     * Looks up the episode a switch would move to. Catalog lookups can go over the network, so this is called off
+     * the room's shard and the result is applied there with {@link #applyEpisode}.
+     */
+    public Optional<EpisodeTarget> resolveEpisode(String roomId, Long episodeId) {
+        if (seriesRoom(roomId) == null) {
+            return Optional.empty();
+        }
+
+        Optional<Episode> episodeOpt = seriesService.getEpisodeById(episodeId);
+        if (episodeOpt.isEmpty()) {
+            log.warn("Episode not found: {}", episodeId);
+        }
+        return episodeOpt.map(episode -> new EpisodeTarget(episode, null));
+    }
+
+    public Optional<EpisodeTarget> resolveNextEpisode(String roomId) {
+        Room room = seriesRoom(roomId);
         if (room == null) {
-            log.warn("Room not found: {}", roomId);
-            return false;
+            return Optional.empty();
         }
 
-        if (room.getRoomType() != Room.RoomType.SERIES) {
-            log.warn("Cannot switch episode in movie room: {}", roomId);
+        Long currentEpisodeId = room.getCurrentEpisodeId();
+        Optional<Episode> nextEpisodeOpt = seriesService.getNextEpisode(room.getSeries().getId(), currentEpisodeId);
+        if (nextEpisodeOpt.isEmpty()) {
+            log.info("No next episode found for room {}", roomId);
+        }
+        return nextEpisodeOpt.map(episode -> new EpisodeTarget(episode, currentEpisodeId));
+    }
+
+    public Optional<EpisodeTarget> resolvePreviousEpisode(String roomId) {
+        Room room = seriesRoom(roomId);
+        if (room == null) {
+            return Optional.empty();
+        }
+
+        Long currentEpisodeId = room.getCurrentEpisodeId();
+        Optional<Episode> prevEpisodeOpt = seriesService.getPreviousEpisode(room.getSeries().getId(), currentEpisodeId);
+        if (prevEpisodeOpt.isEmpty()) {
+            log.info("No previous episode found for room {}", roomId);
+        }
+        return prevEpisodeOpt.map(episode -> new EpisodeTarget(episode, currentEpisodeId));
+    }
+
+    /**
+     * Switches the room to a resolved episode; runs on the room's shard. A next/previous target is refused when
+     * the room has moved to another episode since it was resolved.
+     */
+    public boolean applyEpisode(String roomId, EpisodeTarget target, String userId) {
+        Room room = seriesRoom(roomId);
+        if (room == null) {
             return false;
         }
 
@@ -166,120 +304,140 @@ public class RoomService {
             return false;
         }
 
-        Optional<Episode> episodeOpt = seriesService.getEpisodeById(episodeId);
-        if (episodeOpt.isEmpty()) {
-            log.warn("Episode not found: {}", episodeId);
+        Episode episode = target.episode();
+        if (!episode.getSeriesId().equals(room.getSeries().getId())) {
+            log.warn("Episode {} does not belong to series {} in room {}",
+                    episode.getId(), room.getSeries().getId(), roomId);
             return false;
         }
 
-        Episode episode = episodeOpt.get();
-
-        if (!episode.getSeriesId().equals(room.getSeries().getId())) {
-            log.warn("Episode {} does not belong to series {} in room {}",
-                    episodeId, room.getSeries().getId(), roomId);
+        if (target.fromEpisodeId() != null && !target.fromEpisodeId().equals(room.getCurrentEpisodeId())) {
+            log.info("Room {} left episode {} before the switch to {} was applied",
+                    roomId, target.fromEpisodeId(), episode.getId());
             return false;
         }
 
-        room.setCurrentEpisodeId(episodeId);
+        room.setCurrentEpisodeId(episode.getId());
         room.setCurrentEpisode(episode);
-        room.setCurrentTime(0.0);
-        room.setPlaying(false);
+        room.anchor(0.0, false, System.currentTimeMillis());
         room.setLastActionUserId(userId);
+        lobbyService.roomUpdated(room);
+        roomJournal.episodeSwitched(room);
+        room.getCommandLog().record(CommandLog.Type.SWITCH_EPISODE, userId, 0.0, room.getPlaybackRate(),
+                episode.getId(), true, room.getAnchorTimestamp());
 
         log.info("Switched to episode S{}E{} in room {} by user {}",
                 episode.getSeasonNumber(), episode.getEpisodeNumber(), roomId, userId);
         return true;
     }
 
-    public boolean switchToNextEpisode(String roomId, String userId) {
-        Room room = rooms.get(roomId);
+    public List<Episode> getAvailableEpisodes(String roomId) {
+        Room room = roomRegistry.get(roomId).orElse(null);
         if (room == null || room.getRoomType() != Room.RoomType.SERIES) {
-            return false;
+            return Collections.emptyList();
         }
 
-        if (!isHost(roomId, userId)) {
-            log.warn("User {} is not host of room {}, cannot switch to next episode", userId, roomId);
-            return false;
-        }
+        return seriesEpisodeIndexService.getEpisodes(room.getSeries().getId());
+    }
 
-        Optional<Episode> nextEpisodeOpt = seriesService.getNextEpisode(room.getCurrentEpisodeId());
-        if (nextEpisodeOpt.isEmpty()) {
-            log.info("No next episode found for room {}", roomId);
-            return false;
+    public List<Room> getRoomsByMovieId(String movieId) {
+        try {
+            return getRoomsByMovieId(Long.parseLong(movieId));
+        } catch (NumberFormatException e) {
+            return Collections.emptyList();
         }
+    }
 
-        return switchEpisode(roomId, nextEpisodeOpt.get().getId(), userId);
+    public List<Room> getRoomsByMovieId(Long movieId) {
+        return resolveRooms(roomIdsByMovie.get(movieId));
     }
 
-    public boolean switchToPreviousEpisode(String roomId, String userId) {
-        Room room = rooms.get(roomId);
-        if (room == null || room.getRoomType() != Room.RoomType.SERIES) {
-            return false;
-        }
+    public List<Room> getRoomsBySeriesId(Long seriesId) {
+        return resolveRooms(roomIdsBySeries.get(seriesId));
+    }
 
-        if (!isHost(roomId, userId)) {
-            log.warn("User {} is not host of room {}, cannot switch to previous episode", userId, roomId);
-            return false;
-        }
+    public int countRoomsByMovieId(Long movieId) {
+        Set<String> roomIds = roomIdsByMovie.get(movieId);
+        return roomIds != null ? roomIds.size() : 0;
+    }
 
-        Optional<Episode> prevEpisodeOpt = seriesService.getPreviousEpisode(room.getCurrentEpisodeId());
-        if (prevEpisodeOpt.isEmpty()) {
-            log.info("No previous episode found for room {}", roomId);
-            return false;
-        }
+    public int countRoomsBySeriesId(Long seriesId) {
+        Set<String> roomIds = roomIdsBySeries.get(seriesId);
+        return roomIds != null ? roomIds.size() : 0;
+    }
+
+    public int getTotalRoomsCount() {
+        return roomRegistry.localRooms().size();
+    }
 
-        return switchEpisode(roomId, prevEpisodeOpt.get().getId(), userId);
+    public int getTotalUsersCount() {
+        return totalUsers.get();
     }
 
-    public List<Episode> getAvailableEpisodes(String roomId) {
-        Room room = rooms.get(roomId);
-        if (room == null || room.getRoomType() != Room.RoomType.SERIES) {
+    private List<Room> resolveRooms(Set<String> roomIds) {
+        if (roomIds == null) {
             return Collections.emptyList();
         }
+        return roomIds.stream()
+                .map(this::localRoom)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
-        List<Season> seasons = seriesService.getSeasonsBySeries(room.getSeries().getId());
-        List<Episode> allEpisodes = new ArrayList<>();
+    private Room localRoom(String roomId) {
+        return roomRegistry.get(roomId).orElse(null);
+    }
 
-        for (Season season : seasons) {
-            List<Episode> seasonEpisodes = seriesService.getEpisodesBySeason(season.getId());
-            allEpisodes.addAll(seasonEpisodes);
+    private Room seriesRoom(String roomId) {
+        Room room = localRoom(roomId);
+        if (room == null) {
+            log.warn("Room not found: {}", roomId);
+            return null;
         }
+        if (room.getRoomType() != Room.RoomType.SERIES) {
+            log.warn("Cannot switch episode in movie room: {}", roomId);
+            return null;
+        }
+        return room;
+    }
 
-        allEpisodes.sort((e1, e2) -> {
-            int seasonCompare = Integer.compare(e1.getSeasonNumber(), e2.getSeasonNumber());
-            if (seasonCompare != 0) return seasonCompare;
-            return Integer.compare(e1.getEpisodeNumber(), e2.getEpisodeNumber());
-        });
-
-        return allEpisodes;
+    private void addToIndexes(Room room) {
+        totalUsers.addAndGet(room.getUserCount());
+        if (room.getRoomType() == Room.RoomType.MOVIE && room.getMovie() != null) {
+            addToIndex(roomIdsByMovie, room.getMovie().getId(), room.getId());
+        } else if (room.getRoomType() == Room.RoomType.SERIES && room.getSeries() != null) {
+            addToIndex(roomIdsBySeries, room.getSeries().getId(), room.getId());
+        }
     }
 
-    public List<Room> getRoomsByMovieId(String movieId) {
-        try {
-            Long id = Long.parseLong(movieId);
-            return rooms.values().stream()
-                    .filter(room -> room.getRoomType() == Room.RoomType.MOVIE)
-                    .filter(room -> room.getMovie() != null && room.getMovie().getId().equals(id))
-                    .toList();
-        } catch (NumberFormatException e) {
-            return Collections.emptyList();
+    private void removeFromIndexes(Room room) {
+        totalUsers.addAndGet(-room.getUserCount());
+        if (room.getRoomType() == Room.RoomType.MOVIE && room.getMovie() != null) {
+            removeFromIndex(roomIdsByMovie, room.getMovie().getId(), room.getId());
+        } else if (room.getRoomType() == Room.RoomType.SERIES && room.getSeries() != null) {
+            removeFromIndex(roomIdsBySeries, room.getSeries().getId(), room.getId());
         }
     }
 
-    public List<Room> getRoomsBySeriesId(Long seriesId) {
-        return rooms.values().stream()
-                .filter(room -> room.getRoomType() == Room.RoomType.SERIES)
-                .filter(room -> room.getSeries() != null && room.getSeries().getId().equals(seriesId))
-                .toList();
+    private static void addToIndex(Map<Long, Set<String>> index, Long contentId, String roomId) {
+        index.compute(contentId, (id, roomIds) -> {
+            Set<String> ids = roomIds != null ? roomIds : ConcurrentHashMap.newKeySet();
+            ids.add(roomId);
+            return ids;
+        });
     }
 
-    public int getTotalRoomsCount() {
-        return rooms.size();
+    private static void removeFromIndex(Map<Long, Set<String>> index, Long contentId, String roomId) {
+        index.computeIfPresent(contentId, (id, roomIds) -> {
+            roomIds.remove(roomId);
+            return roomIds.isEmpty() ? null : roomIds;
+        });
     }
 
-    public int getTotalUsersCount() {
-        return rooms.values().stream()
-                .mapToInt(Room::getUserCount)
-                .sum();
+    /**
+     * An episode to switch to. {@code fromEpisodeId} is the episode a next/previous lookup started from, or
+     * {@code null} for an explicit switch.
+     */
+    public record EpisodeTarget(Episode episode, Long fromEpisodeId) {
     }
 }
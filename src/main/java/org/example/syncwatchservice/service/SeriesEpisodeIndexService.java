@@ -0,0 +1,135 @@
+package org.example.syncwatchservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.StorageProperties;
+import org.example.syncwatchservice.model.Episode;
+import org.example.syncwatchservice.model.EpisodeIndex;
+import org.example.syncwatchservice.model.Season;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class SeriesEpisodeIndexService {
+
+    private static final Comparator<Season> SEASON_ORDER = Comparator.comparingInt(Season::getSeasonNumber);
+    private static final Comparator<Episode> EPISODE_ORDER = Comparator.comparingInt(Episode::getSeasonNumber)
+            .thenComparingInt(Episode::getEpisodeNumber);
+    private static final Duration MIN_REBUILD_INTERVAL = Duration.ofSeconds(30);
+
+    private final CatalogCache catalogCache;
+    private final ExecutorService storageExecutor;
+    private final LoadingCache<Long, EpisodeIndex> indexes;
+    // Series whose index was rebuilt for an unknown episode recently; further unknown ids use the index as is.
+    private final Cache<Long, Boolean> recentRebuilds = Caffeine.newBuilder()
+            .expireAfterWrite(MIN_REBUILD_INTERVAL)
+            .maximumSize(10_000)
+            .build();
+
+    public SeriesEpisodeIndexService(CatalogCache catalogCache,
+                                     ExecutorService storageExecutor,
+                                     StorageProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.catalogCache = catalogCache;
+        this.storageExecutor = storageExecutor;
+        this.indexes = CatalogCache.build("episode-index", properties.getCache().getEpisodeIndex(),
+                meterRegistry, this::buildIndex);
+    }
+
+    public EpisodeIndex getIndex(Long seriesId) {
+        EpisodeIndex index;
+        try {
+            index = indexes.get(seriesId);
+        } catch (RestClientException e) {
+            index = null;
+        }
+        return index != null ? index : EpisodeIndex.empty(seriesId);
+    }
+
+    public List<Episode> getEpisodes(Long seriesId) {
+        return getIndex(seriesId).getEpisodes();
+    }
+
+    public List<Season> getSeasons(Long seriesId) {
+        return getIndex(seriesId).getSeasons();
+    }
+
+    public Optional<Episode> getFirstEpisode(Long seriesId) {
+        return getIndex(seriesId).getFirst();
+    }
+
+    public Optional<Episode> getNextEpisode(Long seriesId, Long episodeId) {
+        return navigate(seriesId, episodeId, index -> index.getNext(episodeId));
+    }
+
+    public Optional<Episode> getPreviousEpisode(Long seriesId, Long episodeId) {
+        return navigate(seriesId, episodeId, index -> index.getPrevious(episodeId));
+    }
+
+    private Optional<Episode> navigate(Long seriesId, Long episodeId, Function<EpisodeIndex, Optional<Episode>> step) {
+        EpisodeIndex index = getIndex(seriesId);
+        if (!index.contains(episodeId) && recentRebuilds.asMap().putIfAbsent(seriesId, Boolean.TRUE) == null) {
+            log.debug("Episode {} not in index for series {}, rebuilding", episodeId, seriesId);
+            index = rebuild(seriesId, index);
+        }
+        return step.apply(index);
+    }
+
+    // A refresh keeps the current index when the rebuild fails.
+    private EpisodeIndex rebuild(Long seriesId, EpisodeIndex current) {
+        try {
+            EpisodeIndex rebuilt = indexes.refresh(seriesId).join();
+            return rebuilt != null ? rebuilt : current;
+        } catch (CompletionException e) {
+            log.warn("Failed to rebuild episode index for series {}: {}", seriesId, e.getMessage());
+            return current;
+        }
+    }
+
+    /**
+     * Fails when any lookup fails, so a partial index is never cached: on a refresh the previous index stays.
+     */
+    private EpisodeIndex buildIndex(Long seriesId) {
+        List<Season> seasons = catalogCache.loadSeasonsBySeries(seriesId);
+        if (seasons.isEmpty()) {
+            return null;
+        }
+
+        List<CompletableFuture<List<Episode>>> seasonEpisodes = seasons.stream()
+                .map(season -> CompletableFuture.supplyAsync(
+                        () -> catalogCache.loadEpisodesBySeason(season.getId()), storageExecutor))
+                .toList();
+
+        List<Episode> episodes = new ArrayList<>();
+        try {
+            seasonEpisodes.forEach(future -> episodes.addAll(future.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        episodes.sort(EPISODE_ORDER);
+
+        List<Season> sortedSeasons = new ArrayList<>(seasons);
+        sortedSeasons.sort(SEASON_ORDER);
+
+        log.debug("Built episode index for series {}: {} seasons, {} episodes",
+                seriesId, sortedSeasons.size(), episodes.size());
+        return new EpisodeIndex(seriesId, List.copyOf(sortedSeasons), List.copyOf(episodes));
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Slf4j
 @Service
@@ -16,10 +18,17 @@ import java.util.Optional;
 public class SeriesService {
 
     private final StorageService storageService;
+    private final CatalogCache catalogCache;
+    private final ExecutorService storageExecutor;
+    private final SeriesEpisodeIndexService seriesEpisodeIndexService;
 
     public List<Series> getAllSeries() {
-        log.debug("Fetching all series from storage service");
-        return storageService.getAllSeries();
+        log.debug("Fetching all series from catalog cache");
+        return catalogCache.getAllSeries();
+    }
+
+    public CompletableFuture<List<Series>> getAllSeriesAsync() {
+        return CompletableFuture.supplyAsync(this::getAllSeries, storageExecutor);
     }
 
     public Optional<Series> getSeriesById(Long seriesId) {
@@ -29,22 +38,26 @@ public class SeriesService {
 
     public List<Season> getSeasonsBySeries(Long seriesId) {
         log.debug("Fetching seasons for series: {}", seriesId);
-        return storageService.getSeasonsBySeries(seriesId);
+        return catalogCache.getSeasonsBySeries(seriesId);
     }
 
     public List<Episode> getEpisodesBySeason(Long seasonId) {
         log.debug("Fetching episodes for season: {}", seasonId);
-        return storageService.getEpisodesBySeason(seasonId);
+        return catalogCache.getEpisodesBySeason(seasonId);
+    }
+
+    public CompletableFuture<List<Episode>> getEpisodesBySeasonAsync(Long seasonId) {
+        return CompletableFuture.supplyAsync(() -> getEpisodesBySeason(seasonId), storageExecutor);
     }
 
     public Optional<Episode> getEpisodeById(Long episodeId) {
         log.debug("Fetching episode with id: {}", episodeId);
-        return storageService.getEpisodeById(episodeId);
+        return catalogCache.getEpisodeById(episodeId);
     }
 
     public Optional<Episode> getFirstEpisode(Long seriesId) {
         log.debug("Getting first episode for series: {}", seriesId);
-        return storageService.getFirstEpisode(seriesId);
+        return seriesEpisodeIndexService.getFirstEpisode(seriesId);
     }
 
     public String getEpisodeStreamUrl(Long episodeId) {
@@ -52,65 +65,13 @@ public class SeriesService {
         return storageService.getEpisodeStreamUrl(episodeId);
     }
 
-    public Optional<Episode> getNextEpisode(Long currentEpisodeId) {
-        Optional<Episode> currentEpisodeOpt = getEpisodeById(currentEpisodeId);
-        if (currentEpisodeOpt.isEmpty()) {
-            return Optional.empty();
-        }
-
-        Episode currentEpisode = currentEpisodeOpt.get();
-        List<Episode> seasonEpisodes = getEpisodesBySeason(currentEpisode.getSeasonId());
-
-        Optional<Episode> nextInSeason = seasonEpisodes.stream()
-                .filter(ep -> ep.getEpisodeNumber() == currentEpisode.getEpisodeNumber() + 1)
-                .findFirst();
-
-        if (nextInSeason.isPresent()) {
-            return nextInSeason;
-        }
-
-        List<Season> seriesSeasons = getSeasonsBySeries(currentEpisode.getSeriesId());
-        Optional<Season> nextSeason = seriesSeasons.stream()
-                .filter(season -> season.getSeasonNumber() == currentEpisode.getSeasonNumber() + 1)
-                .findFirst();
-
-        if (nextSeason.isPresent()) {
-            List<Episode> nextSeasonEpisodes = getEpisodesBySeason(nextSeason.get().getId());
-            return nextSeasonEpisodes.stream()
-                    .min((e1, e2) -> Integer.compare(e1.getEpisodeNumber(), e2.getEpisodeNumber()));
-        }
-
-        return Optional.empty();
+    public Optional<Episode> getNextEpisode(Long seriesId, Long currentEpisodeId) {
+        log.debug("Getting next episode after {} in series {}", currentEpisodeId, seriesId);
+        return seriesEpisodeIndexService.getNextEpisode(seriesId, currentEpisodeId);
     }
 
-    public Optional<Episode> getPreviousEpisode(Long currentEpisodeId) {
-        Optional<Episode> currentEpisodeOpt = getEpisodeById(currentEpisodeId);
-        if (currentEpisodeOpt.isEmpty()) {
-            return Optional.empty();
-        }
-
-        Episode currentEpisode = currentEpisodeOpt.get();
-        List<Episode> seasonEpisodes = getEpisodesBySeason(currentEpisode.getSeasonId());
-
-        Optional<Episode> prevInSeason = seasonEpisodes.stream()
-                .filter(ep -> ep.getEpisodeNumber() == currentEpisode.getEpisodeNumber() - 1)
-                .findFirst();
-
-        if (prevInSeason.isPresent()) {
-            return prevInSeason;
-        }
-
-        List<Season> seriesSeasons = getSeasonsBySeries(currentEpisode.getSeriesId());
-        Optional<Season> prevSeason = seriesSeasons.stream()
-                .filter(season -> season.getSeasonNumber() == currentEpisode.getSeasonNumber() - 1)
-                .findFirst();
-
-        if (prevSeason.isPresent()) {
-            List<Episode> prevSeasonEpisodes = getEpisodesBySeason(prevSeason.get().getId());
-            return prevSeasonEpisodes.stream()
-                    .max((e1, e2) -> Integer.compare(e1.getEpisodeNumber(), e2.getEpisodeNumber()));
-        }
-
-        return Optional.empty();
+    public Optional<Episode> getPreviousEpisode(Long seriesId, Long currentEpisodeId) {
+        log.debug("Getting previous episode before {} in series {}", currentEpisodeId, seriesId);
+        return seriesEpisodeIndexService.getPreviousEpisode(seriesId, currentEpisodeId);
     }
 }
@@ -0,0 +1,201 @@
+package org.example.syncwatchservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.message.PresenceReport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives who is connected to which room from the STOMP session lifecycle: the user is the session principal
+ * the handshake took from the HTTP session, the room the first room topic the session subscribes to. A user counts as disconnected once
+ * their last session in the room closes; the change goes out with the next batched presence delta.
+ * <p>
+ * Presence is applied on the node owning the room: sessions held here for a room owned elsewhere are reported
+ * to the owner, both on change and periodically, so its reaper sees them as alive while they send nothing.
+ */
+@Slf4j
+@Component
+public class SessionPresence {
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+
+    private final RoomService roomService;
+    private final RoomRegistry roomRegistry;
+    private final RoomExecutor roomExecutor;
+    private final PresenceAggregator presenceAggregator;
+    private final IdleReaper idleReaper;
+    private final ObjectProvider<ClusterClient> clusterClient;
+    private final boolean clientHeartbeats;
+
+    private final Map<String, SessionInfo> sessions = new ConcurrentHashMap<>();
+    private final Map<PresenceKey, Integer> liveSessions = new ConcurrentHashMap<>();
+
+    public SessionPresence(RoomService roomService,
+                           RoomRegistry roomRegistry,
+                           RoomExecutor roomExecutor,
+                           PresenceAggregator presenceAggregator,
+                           IdleReaper idleReaper,
+                           ObjectProvider<ClusterClient> clusterClient,
+                           @Value("${app.presence.client-heartbeats:false}") boolean clientHeartbeats) {
+        this.roomService = roomService;
+        this.roomRegistry = roomRegistry;
+        this.roomExecutor = roomExecutor;
+        this.presenceAggregator = presenceAggregator;
+        this.idleReaper = idleReaper;
+        this.clusterClient = clusterClient;
+        this.clientHeartbeats = clientHeartbeats;
+    }
+
+    /**
+     * Whether application-level {@code /heartbeat} messages are still processed; session events make them
+     * redundant for clients that open the socket from a page carrying their HTTP session.
+     */
+    public boolean clientHeartbeatsEnabled() {
+        return clientHeartbeats;
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        Principal user = event.getUser();
+        if (sessionId != null && user != null) {
+            sessions.put(sessionId, new SessionInfo(user.getName()));
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        String roomId = roomIdOf(SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders()));
+        SessionInfo session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null || roomId == null) {
+            return;
+        }
+
+        String previousRoomId;
+        synchronized (session) {
+            if (roomId.equals(session.roomId)) {
+                return;
+            }
+            previousRoomId = session.roomId;
+            session.roomId = roomId;
+        }
+
+        if (previousRoomId != null) {
+            detach(previousRoomId, session.userId);
+        }
+        if (liveSessions.merge(new PresenceKey(roomId, session.userId), 1, Integer::sum) == 1) {
+            markConnected(roomId, session.userId, true);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionInfo session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+
+        String roomId;
+        synchronized (session) {
+            roomId = session.roomId;
+        }
+        if (roomId != null) {
+            detach(roomId, session.userId);
+        }
+    }
+
+    private void detach(String roomId, String userId) {
+        Integer remaining = liveSessions.computeIfPresent(new PresenceKey(roomId, userId),
+                (key, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            log.debug("Last session of user {} in room {} closed", userId, roomId);
+            markConnected(roomId, userId, false);
+        }
+    }
+
+    /**
+     * Re-reports every user with an open session, so a paused user that sends no pings or heartbeats is not
+     * reaped on the owner. The connected flag is re-asserted as well, which heals a lost report.
+     */
+    @Scheduled(fixedDelayString = "${app.presence.keepalive-interval:30000}")
+    public void keepAlive() {
+        Map<String, List<PresenceReport>> remote = new HashMap<>();
+        for (PresenceKey key : liveSessions.keySet()) {
+            Optional<String> owner = roomRegistry.ownerOf(key.roomId());
+            if (owner.isPresent()) {
+                remote.computeIfAbsent(owner.get(), node -> new ArrayList<>())
+                        .add(new PresenceReport(key.roomId(), key.userId(), true));
+            } else {
+                applyLocally(key.roomId(), key.userId(), true);
+            }
+        }
+
+        ClusterClient client = clusterClient.getIfAvailable();
+        if (client != null) {
+            remote.forEach(client::reportPresenceAsync);
+        }
+    }
+
+    /**
+     * Applies a presence change to a room owned by this node.
+     */
+    public void applyLocally(String roomId, String userId, boolean connected) {
+        if (connected) {
+            idleReaper.userSeen(roomId, userId);
+        } else {
+            idleReaper.userDisconnected(roomId, userId);
+        }
+        roomExecutor.execute(roomId, () -> {
+            if (roomService.setUserConnected(roomId, userId, connected)) {
+                presenceAggregator.userChanged(roomId, userId);
+            }
+        });
+    }
+
+    private void markConnected(String roomId, String userId, boolean connected) {
+        Optional<String> owner = roomRegistry.ownerOf(roomId);
+        ClusterClient client = clusterClient.getIfAvailable();
+        if (owner.isPresent() && client != null) {
+            client.reportPresenceAsync(owner.get(), List.of(new PresenceReport(roomId, userId, connected)));
+        } else {
+            applyLocally(roomId, userId, connected);
+        }
+    }
+
+    private static String roomIdOf(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return null;
+        }
+        int end = destination.indexOf('/', ROOM_TOPIC_PREFIX.length());
+        return end > ROOM_TOPIC_PREFIX.length() ? destination.substring(ROOM_TOPIC_PREFIX.length(), end) : null;
+    }
+
+    private static class SessionInfo {
+        final String userId;
+        // Guarded by the instance monitor.
+        String roomId;
+
+        SessionInfo(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    private record PresenceKey(String roomId, String userId) {
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.syncwatchservice.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.example.syncwatchservice.config.StorageProperties;
 import org.example.syncwatchservice.model.Episode;
 import org.example.syncwatchservice.model.FileInfo;
 import org.example.syncwatchservice.model.Movie;
@@ -11,51 +13,97 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
+/**
+ * Client for the storage API. Catalog lookups throw {@link RestClientException} when storage cannot be reached,
+ * so {@link CatalogCache} can tell an outage from an empty result and keep serving what it has.
+ */
 @Slf4j
 @Service
 public class StorageService {
 
+    private static final ParameterizedTypeReference<PageResponse<Movie>> MOVIE_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<PageResponse<Series>> SERIES_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<PageResponse<Season>> SEASON_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<PageResponse<Episode>> EPISODE_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final RestTemplate restTemplate;
     private final String storageApiUrl;
+    private final SingleFlight singleFlight;
+    private final ExecutorService storageExecutor;
+    private final int pageSize;
+    private final int prefetchWindow;
 
     public StorageService(RestTemplate restTemplate,
-                          @Value("${app.storage.api.url:http://localhost:8081/api}") String storageApiUrl) {
+                          @Value("${app.storage.api.url:http://localhost:8081/api}") String storageApiUrl,
+                          StorageProperties properties,
+                          ExecutorService storageExecutor,
+                          MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
         this.storageApiUrl = storageApiUrl;
+        this.storageExecutor = storageExecutor;
+        this.pageSize = properties.getPageSize();
+        this.prefetchWindow = properties.getPrefetchWindow();
+        this.singleFlight = new SingleFlight("storage.requests", meterRegistry);
     }
 
     public List<Movie> getAllMovies() {
+        return singleFlight.execute("movies", null, this::fetchAllMovies);
+    }
+
+    public Optional<Movie> getMovieById(Long movieId) {
+        return singleFlight.execute("movie", movieId, () -> fetchMovieById(movieId));
+    }
+
+    public List<Series> getAllSeries() {
+        return singleFlight.execute("series", null, this::fetchAllSeries);
+    }
+
+    public Optional<Series> getSeriesById(Long seriesId) {
+        return singleFlight.execute("series-detail", seriesId, () -> fetchSeriesById(seriesId));
+    }
+
+    public List<Season> getSeasonsBySeries(Long seriesId) {
+        return singleFlight.execute("seasons", seriesId, () -> fetchSeasonsBySeries(seriesId));
+    }
+
+    public List<Episode> getEpisodesBySeason(Long seasonId) {
+        return singleFlight.execute("episodes", seasonId, () -> fetchEpisodesBySeason(seasonId));
+    }
+
+    public Optional<Episode> getEpisodeById(Long episodeId) {
+        return singleFlight.execute("episode", episodeId, () -> fetchEpisodeById(episodeId));
+    }
+
+    private List<Movie> fetchAllMovies() {
         try {
-            String url = storageApiUrl + "/movies?size=100";
-            ResponseEntity<PageResponse<Movie>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null,
-                    new ParameterizedTypeReference<PageResponse<Movie>>() {
-                    }
-            );
-
-            if (response.getBody() != null && response.getBody().getContent() != null) {
-                List<Movie> movies = response.getBody().getContent();
-                movies.forEach(movie -> {
-                    movie.setStreamUrl(storageApiUrl + "/stream/movies/" + movie.getId());
-                    movie.setCoverUrl(getCoverUrl(movie.getFiles()));
-                });
-                return movies;
-            }
-            return Collections.emptyList();
+            List<Movie> movies = fetchAllPages("/movies", MOVIE_PAGE);
+            movies.forEach(this::withMediaUrls);
+            return movies;
         } catch (RestClientException e) {
             log.error("Error fetching movies from storage service: {}", e.getMessage());
-            return Collections.emptyList();
+            throw e;
         }
     }
 
-    public Optional<Movie> getMovieById(Long movieId) {
+    private Optional<Movie> fetchMovieById(Long movieId) {
         try {
             String url = storageApiUrl + "/movies/" + movieId;
             ResponseEntity<Movie> response = restTemplate.getForEntity(url, Movie.class);
@@ -73,26 +121,16 @@ public class StorageService {
         }
     }
 
-    public List<Series> getAllSeries() {
+    private List<Series> fetchAllSeries() {
         try {
-            String url = storageApiUrl + "/series?size=100";
-            ResponseEntity<PageResponse<Series>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null,
-                    new ParameterizedTypeReference<PageResponse<Series>>() {
-                    }
-            );
-
-            if (response.getBody() != null && response.getBody().getContent() != null) {
-                return response.getBody().getContent();
-            }
-            return Collections.emptyList();
+            return fetchAllPages("/series", SERIES_PAGE);
         } catch (RestClientException e) {
             log.error("Error fetching series from storage service: {}", e.getMessage());
-            return Collections.emptyList();
+            throw e;
         }
     }
 
-    public Optional<Series> getSeriesById(Long seriesId) {
+    private Optional<Series> fetchSeriesById(Long seriesId) {
         try {
             String url = storageApiUrl + "/series/" + seriesId;
             ResponseEntity<Series> response = restTemplate.getForEntity(url, Series.class);
@@ -107,51 +145,27 @@ public class StorageService {
         }
     }
 
-    public List<Season> getSeasonsBySeries(Long seriesId) {
+    private List<Season> fetchSeasonsBySeries(Long seriesId) {
         try {
-            String url = storageApiUrl + "/series/" + seriesId + "/seasons?size=100";
-            ResponseEntity<PageResponse<Season>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null,
-                    new ParameterizedTypeReference<PageResponse<Season>>() {
-                    }
-            );
-
-            if (response.getBody() != null && response.getBody().getContent() != null) {
-                return response.getBody().getContent();
-            }
-            return Collections.emptyList();
+            return fetchAllPages("/series/" + seriesId + "/seasons", SEASON_PAGE);
         } catch (RestClientException e) {
             log.error("Error fetching seasons for series {} from storage service: {}", seriesId, e.getMessage());
-            return Collections.emptyList();
+            throw e;
         }
     }
 
-    public List<Episode> getEpisodesBySeason(Long seasonId) {
+    private List<Episode> fetchEpisodesBySeason(Long seasonId) {
         try {
-            String url = storageApiUrl + "/series/seasons/" + seasonId + "/episodes?size=100";
-            ResponseEntity<PageResponse<Episode>> response = restTemplate.exchange(
-                    url, HttpMethod.GET, null,
-                    new ParameterizedTypeReference<PageResponse<Episode>>() {
-                    }
-            );
-
-            if (response.getBody() != null && response.getBody().getContent() != null) {
-                List<Episode> episodes = response.getBody().getContent();
-
-                episodes.forEach(episode -> {
-                    episode.setStreamUrl(storageApiUrl + "/stream/episodes/" + episode.getId());
-                    episode.setCoverUrl(getCoverUrl(episode.getFiles()));
-                });
-                return episodes;
-            }
-            return Collections.emptyList();
+            List<Episode> episodes = fetchAllPages("/series/seasons/" + seasonId + "/episodes", EPISODE_PAGE);
+            episodes.forEach(this::withMediaUrls);
+            return episodes;
         } catch (RestClientException e) {
             log.error("Error fetching episodes for season {} from storage service: {}", seasonId, e.getMessage());
-            return Collections.emptyList();
+            throw e;
         }
     }
 
-    public Optional<Episode> getEpisodeById(Long episodeId) {
+    private Optional<Episode> fetchEpisodeById(Long episodeId) {
         try {
             String url = storageApiUrl + "/stream/episodes/" + episodeId + "/info";
             ResponseEntity<MediaInfo> response = restTemplate.getForEntity(url, MediaInfo.class);
@@ -163,37 +177,49 @@ public class StorageService {
                 return Optional.of(episode);
             }
             return Optional.empty();
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
         } catch (RestClientException e) {
             log.error("Error fetching episode {} from storage service: {}", episodeId, e.getMessage());
-            return Optional.empty();
+            throw e;
         }
     }
 
-    public Optional<Episode> getFirstEpisode(Long seriesId) {
-        List<Season> seasons = getSeasonsBySeries(seriesId);
-        if (seasons.isEmpty()) {
-            return Optional.empty();
-        }
+    public String getMovieStreamUrl(Long movieId) {
+        return storageApiUrl + "/stream/movies/" + movieId;
+    }
 
-        Season firstSeason = seasons.stream()
-                .min((s1, s2) -> Integer.compare(s1.getSeasonNumber(), s2.getSeasonNumber()))
-                .orElse(seasons.get(0));
+    public String getEpisodeStreamUrl(Long episodeId) {
+        return storageApiUrl + "/stream/episodes/" + episodeId;
+    }
 
-        List<Episode> episodes = getEpisodesBySeason(firstSeason.getId());
-        if (episodes.isEmpty()) {
-            return Optional.empty();
-        }
+    /**
+     * Collects every page of a resource. Pages after the first are prefetched on the storage executor, so the
+     * pages download concurrently; the caller still gets the list only once the last page arrived.
+     */
+    private <T> List<T> fetchAllPages(String path, ParameterizedTypeReference<PageResponse<T>> pageType) {
+        PageIterator<T> pages = new PageIterator<>(page -> fetchPage(path, page, pageType), storageExecutor, prefetchWindow);
+        List<T> items = new ArrayList<>();
+        pages.forEachRemaining(items::add);
+        return Collections.unmodifiableList(items);
+    }
 
-        return episodes.stream()
-                .min((e1, e2) -> Integer.compare(e1.getEpisodeNumber(), e2.getEpisodeNumber()));
+    private <T> PageResponse<T> fetchPage(String path, int page, ParameterizedTypeReference<PageResponse<T>> pageType) {
+        String url = storageApiUrl + path + "?page=" + page + "&size=" + pageSize;
+        ResponseEntity<PageResponse<T>> response = restTemplate.exchange(url, HttpMethod.GET, null, pageType);
+        return response.getBody();
     }
 
-    public String getMovieStreamUrl(Long movieId) {
-        return storageApiUrl + "/stream/movies/" + movieId;
+    private Movie withMediaUrls(Movie movie) {
+        movie.setStreamUrl(storageApiUrl + "/stream/movies/" + movie.getId());
+        movie.setCoverUrl(getCoverUrl(movie.getFiles()));
+        return movie;
     }
 
-    public String getEpisodeStreamUrl(Long episodeId) {
-        return storageApiUrl + "/stream/episodes/" + episodeId;
+    private Episode withMediaUrls(Episode episode) {
+        episode.setStreamUrl(storageApiUrl + "/stream/episodes/" + episode.getId());
+        episode.setCoverUrl(getCoverUrl(episode.getFiles()));
+        return episode;
     }
 
     private String getCoverUrl(List<FileInfo> files) {
@@ -0,0 +1,161 @@
+package org.example.syncwatchservice.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hierarchical timing wheel of per-key deadlines. Level {@code i} has {@code wheelSize} buckets spanning
+ * {@code tick * wheelSize^i} each; buckets of upper levels cascade into lower ones as time reaches them, so
+ * advancing costs work proportional to the entries that come due rather than to all tracked keys.
+ * <p>
+ * Pushing a deadline later only rewrites it on the existing entry; the entry is re-bucketed when its old
+ * bucket comes due. Moving a deadline earlier replaces the entry.
+ */
+final class TimingWheel<K> {
+
+    private static final long EXPIRED = Long.MIN_VALUE;
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final ArrayDeque<Entry<K>>[][] levels;
+    private final long[] spans;
+    private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, int levelCount, long now) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = new ArrayDeque[levelCount][wheelSize];
+        this.spans = new long[levelCount];
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            spans[level] = span;
+            for (int bucket = 0; bucket < wheelSize; bucket++) {
+                levels[level][bucket] = new ArrayDeque<>();
+            }
+            span *= wheelSize;
+        }
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Sets the deadline of a key, adding it when it is not tracked yet.
+     */
+    void schedule(K key, long deadline) {
+        Entry<K> entry = entries.get(key);
+        if (entry != null && entry.postpone(deadline)) {
+            return;
+        }
+        synchronized (this) {
+            Entry<K> replacement = new Entry<>(key, deadline);
+            Entry<K> previous = entries.put(key, replacement);
+            if (previous != null) {
+                previous.deadline.set(EXPIRED);
+            }
+            insert(replacement, Math.max(deadline / tickMillis, currentTick + 1));
+        }
+    }
+
+    void cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry != null) {
+            entry.deadline.set(EXPIRED);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the wheel up to {@code now} and returns the keys whose deadline passed.
+     */
+    synchronized List<K> advance(long now) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = now / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.length - 1; level > 0; level--) {
+                if (currentTick % spans[level] == 0) {
+                    cascade(levels[level][bucketOf(currentTick, level)]);
+                }
+            }
+            fire(levels[0][bucketOf(currentTick, 0)], now, expired);
+        }
+        return expired;
+    }
+
+    private void cascade(ArrayDeque<Entry<K>> bucket) {
+        Entry<K> entry;
+        while ((entry = bucket.poll()) != null) {
+            if (entry.deadline.get() != EXPIRED) {
+                insert(entry, Math.max(entry.deadline.get() / tickMillis, currentTick));
+            }
+        }
+    }
+
+    private void fire(ArrayDeque<Entry<K>> bucket, long now, List<K> expired) {
+        int pending = bucket.size();
+        for (int i = 0; i < pending; i++) {
+            Entry<K> entry = bucket.poll();
+            long deadline = entry.deadline.get();
+            if (deadline == EXPIRED) {
+                continue;
+            }
+            if (deadline > now) {
+                insert(entry, Math.max(deadline / tickMillis, currentTick + 1));
+            } else if (entry.deadline.compareAndSet(deadline, EXPIRED)) {
+                entries.remove(entry.key, entry);
+                expired.add(entry.key);
+            } else {
+                // Postponed concurrently; look at it again on the next tick.
+                insert(entry, currentTick + 1);
+            }
+        }
+    }
+
+    private void insert(Entry<K> entry, long expiryTick) {
+        long delta = expiryTick - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delta >= spans[level + 1]) {
+            level++;
+        }
+        // Deadlines past the top level's range wait in its farthest bucket and are re-bucketed from there.
+        long tick = level == levels.length - 1 && delta >= spans[level] * wheelSize
+                ? currentTick + spans[level] * (wheelSize - 1)
+                : expiryTick;
+        levels[level][bucketOf(tick, level)].add(entry);
+    }
+
+    private int bucketOf(long tick, int level) {
+        return (int) ((tick / spans[level]) % wheelSize);
+    }
+
+    private static final class Entry<K> {
+        final K key;
+        final AtomicLong deadline;
+
+        Entry(K key, long deadline) {
+            this.key = key;
+            this.deadline = new AtomicLong(deadline);
+        }
+
+        // False when the deadline moves earlier or the entry already expired, which needs a new bucket.
+        boolean postpone(long newDeadline) {
+            while (true) {
+                long current = deadline.get();
+                if (current == EXPIRED || newDeadline < current) {
+                    return false;
+                }
+                if (deadline.compareAndSet(current, newDeadline)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.syncwatchservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps user ids to small integer handles for the compact wire format. A handle lives while at least one
+ * compact session of that user is connected; 0 means the user has no handle.
+ */
+@Component
+public class UserHandles {
+
+    private final Map<String, Entry> handles = new ConcurrentHashMap<>();
+    private final Map<Integer, String> userIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextHandle = new AtomicInteger();
+
+    public int acquire(String userId) {
+        return handles.compute(userId, (id, entry) -> {
+            if (entry != null) {
+                return new Entry(entry.handle(), entry.references() + 1);
+            }
+            Entry created = new Entry(nextHandle.incrementAndGet(), 1);
+            userIds.put(created.handle(), id);
+            return created;
+        }).handle();
+    }
+
+    public void release(String userId) {
+        handles.computeIfPresent(userId, (id, entry) -> {
+            if (entry.references() > 1) {
+                return new Entry(entry.handle(), entry.references() - 1);
+            }
+            userIds.remove(entry.handle());
+            return null;
+        });
+    }
+
+    public int handleOf(String userId) {
+        Entry entry = userId != null ? handles.get(userId) : null;
+        return entry != null ? entry.handle() : 0;
+    }
+
+    /**
+     * The user a live handle belongs to, or null.
+     */
+    public String userIdOf(int handle) {
+        return handle != 0 ? userIds.get(handle) : null;
+    }
+
+    private record Entry(int handle, int references) {
+    }
+}
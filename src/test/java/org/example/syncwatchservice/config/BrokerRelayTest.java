@@ -0,0 +1,154 @@
+package org.example.syncwatchservice.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relay mode against a stub STOMP broker: the system session connects with the system credentials and a frame
+ * published once reaches the subscribers of every client session through the broker.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.websocket.broker.mode=relay",
+        "app.websocket.broker.relay.host=localhost",
+        "app.websocket.broker.relay.system-login=relay-system",
+        "app.websocket.broker.relay.system-passcode=system-secret",
+        "app.websocket.broker.relay.client-login=relay-client",
+        "app.websocket.broker.relay.client-passcode=client-secret",
+        "app.websocket.broker.relay.system-heartbeat-send=0s",
+        "app.websocket.broker.relay.system-heartbeat-receive=0s",
+        "spring.devtools.restart.enabled=false"
+})
+class BrokerRelayTest {
+
+    private static final StubStompBroker broker = startBroker();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    StompBrokerRelayMessageHandler relay;
+
+    @Autowired
+    SimpMessagingTemplate messagingTemplate;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void brokerPort(DynamicPropertyRegistry registry) {
+        registry.add("app.websocket.broker.relay.port", broker::port);
+    }
+
+    @AfterAll
+    static void stopBroker() throws IOException {
+        broker.close();
+    }
+
+    @Test
+    void systemSessionConnectsWithTheSystemCredentials() {
+        awaitTrue(relay::isBrokerAvailable);
+
+        assertThat(broker.received())
+                .filteredOn(frame -> frame.command().equals("CONNECT"))
+                .anySatisfy(frame -> {
+                    assertThat(frame.headers()).containsEntry("login", "relay-system");
+                    assertThat(frame.headers()).containsEntry("passcode", "system-secret");
+                });
+    }
+
+    @Test
+    void publishedFrameFansOutToEverySubscribedClient() throws Exception {
+        awaitTrue(relay::isBrokerAvailable);
+        BlockingQueue<Object> first = subscribe(connect(), "/topic/room/relay-room/users");
+        BlockingQueue<Object> second = subscribe(connect(), "/topic/room/relay-room/users");
+        awaitTrue(() -> broker.received().stream()
+                .filter(frame -> frame.command().equals("SUBSCRIBE"))
+                .filter(frame -> "/topic/room/relay-room/users".equals(frame.headers().get("destination")))
+                .count() >= 2);
+
+        messagingTemplate.convertAndSend("/topic/room/relay-room/users", Map.of("hello", "relay"));
+
+        assertThat(first.poll(5, TimeUnit.SECONDS)).isEqualTo(Map.of("hello", "relay"));
+        assertThat(second.poll(5, TimeUnit.SECONDS)).isEqualTo(Map.of("hello", "relay"));
+        // Client sessions reach the broker with the client credentials, not the browser's.
+        assertThat(broker.received())
+                .filteredOn(frame -> frame.command().equals("CONNECT")
+                        && "relay-client".equals(frame.headers().get("login")))
+                .hasSizeGreaterThanOrEqualTo(2);
+        sessions.forEach(StompSession::disconnect);
+    }
+
+    private StompSession connect() throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        client.setDefaultHeartbeat(new long[]{0, 0});
+        StompSession session = client.connectAsync("ws://localhost:" + port + "/ws-native",
+                new StompSessionHandlerAdapter() {
+                }).get(5, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    private static BlockingQueue<Object> subscribe(StompSession session, String destination) {
+        BlockingQueue<Object> frames = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frames.add(payload);
+            }
+        });
+        return frames;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met within 10s").isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static StubStompBroker startBroker() {
+        try {
+            return new StubStompBroker();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.syncwatchservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A channel executor with one thread and room for one queued message, saturated by a handler that blocks.
+ */
+class ChannelExecutorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> handledOn = new CopyOnWriteArrayList<>();
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfRunningOnTheSender() throws InterruptedException {
+        executor = WebSocketConfig.channelExecutor("ws-inbound-", pool(), meterRegistry);
+        executor.initialize();
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+        CountDownLatch started = new CountDownLatch(1);
+        channel.subscribe(message -> {
+            handledOn.add(Thread.currentThread().getName());
+            started.countDown();
+            awaitRelease();
+        });
+
+        assertThat(channel.send(MessageBuilder.withPayload("in flight").build())).isTrue();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(channel.send(MessageBuilder.withPayload("queued").build())).isTrue();
+
+        assertThatThrownBy(() -> channel.send(MessageBuilder.withPayload("overflow").build()))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasRootCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("ws.channel.rejected").tag("channel", "ws-inbound").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        // The rejected message never ran, neither on the pool nor inline on the sending thread.
+        assertThat(handledOn).hasSize(2).allSatisfy(name -> assertThat(name).startsWith("ws-inbound-"));
+    }
+
+    private static WebSocketProperties.ChannelPool pool() {
+        WebSocketProperties.ChannelPool pool = new WebSocketProperties.ChannelPool();
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.setQueueCapacity(1);
+        pool.setKeepAlive(Duration.ofSeconds(60));
+        return pool;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.syncwatchservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterSecretFilterTest {
+
+    private final ClusterSecretFilter filter = new ClusterSecretFilter(properties("s3cret"));
+
+    @Test
+    void rejectsInternalCallWithoutSecret() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/internal/rooms/handoff"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void rejectsInternalCallWithWrongSecret() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/internal/rooms/r1/commands");
+        request.addHeader(ClusterSecretFilter.HEADER, "guess");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void rejectsPathParameterVariant() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/internal;x=1/presence"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void passesInternalCallWithSecret() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/internal/presence");
+        request.addHeader(ClusterSecretFilter.HEADER, "s3cret");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void leavesPublicPathsAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/room/r1");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void refusesToStartWithoutSecret() {
+        assertThatThrownBy(() -> new ClusterSecretFilter(properties(" ")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ClusterProperties properties(String secret) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setSecret(secret);
+        return properties;
+    }
+}
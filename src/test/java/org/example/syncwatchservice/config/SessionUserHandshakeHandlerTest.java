@@ -0,0 +1,51 @@
+package org.example.syncwatchservice.config;
+
+import org.example.syncwatchservice.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.socket.WebSocketHandler;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SessionUserHandshakeHandlerTest {
+
+    private final SessionUserHandshakeHandler handler = new SessionUserHandshakeHandler();
+    private final WebSocketHandler wsHandler = mock(WebSocketHandler.class);
+
+    @Test
+    void principalIsTheUserOfTheHttpSession() throws Exception {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/ws-native");
+        servletRequest.getSession()
+                .setAttribute(SessionUserHandshakeHandler.USER_ATTRIBUTE, new User("alice", "Alice"));
+        // A client-supplied id must not matter.
+        servletRequest.addHeader("x-user-id", "mallory");
+        ServletServerHttpRequest request = new ServletServerHttpRequest(servletRequest);
+        Map<String, Object> attributes = new HashMap<>();
+
+        SessionUserHandshakeHandler.sessionUserInterceptor().beforeHandshake(request,
+                new ServletServerHttpResponse(new MockHttpServletResponse()), wsHandler, attributes);
+        Principal principal = handler.determineUser(request, wsHandler, attributes);
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.getName()).isEqualTo("alice");
+    }
+
+    @Test
+    void noPrincipalWithoutAnHttpSessionUser() throws Exception {
+        ServletServerHttpRequest request = new ServletServerHttpRequest(new MockHttpServletRequest("GET", "/ws"));
+        Map<String, Object> attributes = new HashMap<>();
+
+        SessionUserHandshakeHandler.sessionUserInterceptor().beforeHandshake(request,
+                new ServletServerHttpResponse(new MockHttpServletResponse()), wsHandler, attributes);
+
+        assertThat(handler.determineUser(request, wsHandler, attributes)).isNull();
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.syncwatchservice.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Storage API round trips through the former {@link SimpleClientHttpRequestFactory} and the pooled client built
+ * by {@link RestTemplateConfig}, against a local stub serving one catalog page. The stub gzips when asked to,
+ * so the pooled client's compression shows up in the numbers too.
+ * <p>
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.args="StorageClientBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class StorageClientBenchmark {
+
+    @Param({"simple", "pooled"})
+    public String client;
+
+    private ExecutorService stubExecutor;
+    private HttpServer stub;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = catalogPage(100);
+        byte[] gzipped = gzip(body);
+
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/api/movies", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean compress = acceptEncoding != null && acceptEncoding.contains("gzip");
+            byte[] response = compress ? gzipped : body;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            if (compress) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        stub.start();
+        url = "http://localhost:" + stub.getAddress().getPort() + "/api/movies?page=0&size=100";
+
+        if (client.equals("pooled")) {
+            RestTemplateConfig config = new RestTemplateConfig();
+            StorageProperties properties = new StorageProperties();
+            PoolingHttpClientConnectionManager connectionManager =
+                    config.storageConnectionManager(properties, new SimpleMeterRegistry());
+            httpClient = config.storageHttpClient(connectionManager, properties);
+            restTemplate = config.restTemplate(httpClient);
+        } else {
+            restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public String fetchCatalogPage() {
+        return restTemplate.getForObject(url, String.class);
+    }
+
+    private static byte[] catalogPage(int size) {
+        StringBuilder json = new StringBuilder("{\"content\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"title\":\"Movie ").append(i)
+                    .append("\",\"description\":\"A film about the number ").append(i)
+                    .append(" and what it means to everyone involved.\",\"year\":").append(1950 + i % 70)
+                    .append(",\"duration\":").append(80 + i % 60)
+                    .append(",\"files\":[{\"id\":").append(i)
+                    .append(",\"fileType\":\"COVER\",\"downloadUrl\":\"/api/files/").append(i)
+                    .append("/download\"}]}");
+        }
+        json.append("],\"totalPages\":1,\"totalElements\":").append(size).append(",\"last\":true}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
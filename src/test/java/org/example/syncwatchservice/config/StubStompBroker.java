@@ -0,0 +1,184 @@
+package org.example.syncwatchservice.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Just enough of a STOMP 1.2 broker for the relay: answers CONNECT, keeps subscriptions per connection and fans
+ * each SEND out as MESSAGE frames to every connection subscribed to its destination. Heart-beats are refused.
+ */
+class StubStompBroker implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final List<Frame> received = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    StubStompBroker() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(this::accept, "stub-stomp-broker");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Every frame received so far, across connections.
+     */
+    List<Frame> received() {
+        return List.copyOf(received);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.socket.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.add(connection);
+                Thread reader = new Thread(connection::read, "stub-stomp-connection");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Connection connection, Frame frame) throws IOException {
+        received.add(frame);
+        switch (frame.command()) {
+            case "CONNECT", "STOMP" -> connection.write("CONNECTED",
+                    Map.of("version", "1.2", "heart-beat", "0,0"), "");
+            case "SUBSCRIBE" -> connection.subscriptions.put(frame.headers().get("id"),
+                    frame.headers().get("destination"));
+            case "UNSUBSCRIBE" -> connection.subscriptions.remove(frame.headers().get("id"));
+            case "SEND" -> fanOut(frame);
+            case "DISCONNECT" -> connection.socket.close();
+            default -> {
+            }
+        }
+        String receipt = frame.headers().get("receipt");
+        if (receipt != null && !connection.socket.isClosed()) {
+            connection.write("RECEIPT", Map.of("receipt-id", receipt), "");
+        }
+    }
+
+    private void fanOut(Frame send) throws IOException {
+        String destination = send.headers().get("destination");
+        for (Connection connection : connections) {
+            for (Map.Entry<String, String> subscription : connection.subscriptions.entrySet()) {
+                if (subscription.getValue().equals(destination)) {
+                    Map<String, String> headers = new LinkedHashMap<>();
+                    headers.put("destination", destination);
+                    headers.put("subscription", subscription.getKey());
+                    headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+                    String contentType = send.headers().get("content-type");
+                    if (contentType != null) {
+                        headers.put("content-type", contentType);
+                    }
+                    connection.write("MESSAGE", headers, send.body());
+                }
+            }
+        }
+    }
+
+    record Frame(String command, Map<String, String> headers, String body) {
+    }
+
+    private final class Connection {
+
+        final Socket socket;
+        final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void read() {
+            try (InputStream in = socket.getInputStream()) {
+                Frame frame;
+                while ((frame = readFrame(in)) != null) {
+                    handle(this, frame);
+                }
+            } catch (IOException e) {
+                // Closed by either side.
+            } finally {
+                connections.remove(this);
+            }
+        }
+
+        synchronized void write(String command, Map<String, String> headers, String body) throws IOException {
+            StringBuilder frame = new StringBuilder(command).append('\n');
+            headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+            byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+            frame.append("content-length:").append(payload.length).append("\n\n");
+            OutputStream out = socket.getOutputStream();
+            out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(payload);
+            out.write(0);
+            out.flush();
+        }
+
+        private Frame readFrame(InputStream in) throws IOException {
+            String command;
+            do {
+                command = readLine(in);
+                if (command == null) {
+                    return null;
+                }
+            } while (command.isEmpty());
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) > 0) {
+                body.write(b);
+            }
+            if (b < 0) {
+                return null;
+            }
+            return new Frame(command, headers, body.toString(StandardCharsets.UTF_8));
+        }
+
+        private String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    return null;
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
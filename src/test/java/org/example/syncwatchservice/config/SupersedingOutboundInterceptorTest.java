@@ -0,0 +1,130 @@
+package org.example.syncwatchservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SupersedingOutboundInterceptorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SupersedingOutboundInterceptor interceptor = new SupersedingOutboundInterceptor(meterRegistry);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final List<Object> delivered = new ArrayList<>();
+    private final MessageHandler handler = message -> delivered.add(message.getPayload());
+
+    @BeforeEach
+    void setUp() {
+        connect("s1");
+    }
+
+    @Test
+    void newerStateFrameReplacesTheQueuedOne() {
+        Message<?> inFlight = send("s1", "/topic/room/r1/sync", "sync-1");
+        assertThat(inFlight).isNotNull();
+        assertThat(send("s1", "/topic/room/r1/sync", "sync-2")).isNull();
+        assertThat(send("s1", "/topic/room/r1/sync", "sync-3")).isNull();
+        assertThat(send("s1", "/topic/room/r1/users", "users-1")).isNull();
+        assertThat(send("s1", "/topic/room/r1/users", "users-2")).isNull();
+
+        complete(inFlight);
+
+        assertThat(delivered).containsExactly("sync-3", "users-2");
+        assertThat(meterRegistry.get("ws.outbound.dropped").tag("reason", "superseded").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("ws.outbound.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void framesOfOtherRoomsOrTypesAreNotCollapsed() {
+        Message<?> inFlight = send("s1", "/topic/room/r1/users", "users-r1");
+        send("s1", "/topic/room/r1/sync", "sync-r1");
+        send("s1", "/topic/room/r2/sync", "sync-r2");
+        send("s1", "/topic/room/r2/users", "users-r2");
+        send("s1", "/topic/room/r1/users", "users-r1-again");
+
+        complete(inFlight);
+
+        assertThat(delivered).containsExactly("sync-r1", "sync-r2", "users-r2", "users-r1-again");
+    }
+
+    @Test
+    void discreteEventKeepsItsPlaceBetweenStateFrames() {
+        Message<?> inFlight = send("s1", "/topic/room/r1/episodeChanged", "episode");
+        send("s1", "/topic/room/r1/sync", "sync-before");
+        send("s1", "/topic/room/r1/userLeft", "left");
+        send("s1", "/topic/room/r1/sync", "sync-after");
+
+        complete(inFlight);
+
+        assertThat(delivered).containsExactly("sync-before", "left", "sync-after");
+    }
+
+    @Test
+    void presenceAndPongsDoNotCloseTheOpenSlot() {
+        Message<?> inFlight = send("s1", "/topic/room/r1/sync", "sync-1");
+        send("s1", "/topic/room/r1/sync", "sync-2");
+        send("s1", "/topic/room/r1/presence", "presence");
+        send("s1", "/queue/pong-user1", "pong");
+        send("s1", "/topic/room/r1/sync", "sync-3");
+
+        complete(inFlight);
+
+        // The newest sync takes the place of the one it replaced, ahead of the frames queued after it.
+        assertThat(delivered).containsExactly("sync-3", "presence", "pong");
+    }
+
+    @Test
+    void otherSessionsAreNotHeldBack() {
+        connect("s2");
+        assertThat(send("s1", "/topic/room/r1/sync", "s1-sync")).isNotNull();
+        assertThat(send("s1", "/topic/room/r1/sync", "s1-sync-again")).isNull();
+
+        assertThat(send("s2", "/topic/room/r1/sync", "s2-sync")).isNotNull();
+    }
+
+    @Test
+    void rejectedFrameReleasesTheSession() {
+        Message<?> inFlight = send("s1", "/topic/room/r1/sync", "sync-1");
+        send("s1", "/topic/room/r1/userLeft", "left");
+
+        interceptor.afterSendCompletion(inFlight, channel, false, new RejectedExecutionException("saturated"));
+
+        assertThat(send("s1", "/topic/room/r1/sync", "sync-2")).isNotNull();
+        assertThat(meterRegistry.get("ws.outbound.pending").gauge().value()).isEqualTo(1);
+    }
+
+    private void connect(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        interceptor.onConnect(new SessionConnectEvent(this,
+                MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    private Message<?> send(String sessionId, String destination, String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return interceptor.preSend(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()), channel);
+    }
+
+    private void complete(Message<?> inFlight) {
+        interceptor.afterMessageHandled(inFlight, channel, handler, null);
+    }
+}
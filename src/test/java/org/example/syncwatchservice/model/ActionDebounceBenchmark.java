@@ -0,0 +1,101 @@
+package org.example.syncwatchservice.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the debounce check on every play, pause and seek with {@code rooms} rooms active at once: the former
+ * node-wide map keyed by {@code roomId + ":" + action} and swept on every call, against {@link ActionDebounce}
+ * on the room. The clock is frozen inside the debounce window so no room ages out and the sweep always sees
+ * all of them.
+ * <p>
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.args="ActionDebounceBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActionDebounceBenchmark {
+
+    private static final String[] ACTIONS = {"play", "pause", "seek"};
+    private static final String[] USERS = {"host", "guest"};
+    private static final long DEBOUNCE_TIME = 500;
+
+    @Param({"100", "10000"})
+    public int rooms;
+
+    private String[] roomIds;
+    private ActionDebounce[] debounces;
+    private final Map<String, LastAction> lastActions = new ConcurrentHashMap<>();
+    private long now;
+
+    @Setup
+    public void setUp() {
+        now = System.currentTimeMillis();
+        roomIds = new String[rooms];
+        debounces = new ActionDebounce[rooms];
+        for (int i = 0; i < rooms; i++) {
+            roomIds[i] = "room-" + i;
+            debounces[i] = new ActionDebounce();
+            for (String action : ACTIONS) {
+                debounces[i].shouldIgnore(action, 0.0, "host", now);
+                lastActions.put(roomIds[i] + ":" + action, new LastAction(0.0, "host", now));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean sweepingMap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int room = random.nextInt(rooms);
+        return shouldIgnoreAction(roomIds[room], ACTIONS[random.nextInt(3)], random.nextDouble(2.0),
+                USERS[random.nextInt(2)]);
+    }
+
+    @Benchmark
+    public boolean perRoom() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int room = random.nextInt(rooms);
+        return debounces[room].shouldIgnore(ACTIONS[random.nextInt(3)], random.nextDouble(2.0),
+                USERS[random.nextInt(2)], now);
+    }
+
+    // The former WebSocketController implementation.
+    private boolean shouldIgnoreAction(String roomId, String action, double currentTime, String userId) {
+        String key = roomId + ":" + action;
+        LastAction lastAction = lastActions.get(key);
+
+        if (lastAction != null) {
+            boolean sameTime = Math.abs(lastAction.currentTime - currentTime) < 1.0;
+            boolean recentAction = (now - lastAction.timestamp) < DEBOUNCE_TIME;
+            boolean sameUser = lastAction.userId.equals(userId);
+
+            if (sameTime && recentAction && !sameUser) {
+                return true;
+            }
+        }
+
+        lastActions.put(key, new LastAction(currentTime, userId, now));
+        lastActions.entrySet().removeIf(entry -> now - entry.getValue().timestamp > DEBOUNCE_TIME * 2);
+        return false;
+    }
+
+    private record LastAction(double currentTime, String userId, long timestamp) {
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.syncwatchservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogPageTest {
+
+    private static final List<Integer> ITEMS = IntStream.range(0, 25).boxed().toList();
+
+    @Test
+    void slicesRequestedPage() {
+        CatalogPage<Integer> page = CatalogPage.of(ITEMS, 1, 10);
+
+        assertThat(page.getItems()).containsExactly(10, 11, 12, 13, 14, 15, 16, 17, 18, 19);
+        assertThat(page.getTotalItems()).isEqualTo(25);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.isHasNext()).isTrue();
+    }
+
+    @Test
+    void lastPageIsPartialAndHasNoNext() {
+        CatalogPage<Integer> page = CatalogPage.of(ITEMS, 2, 10);
+
+        assertThat(page.getItems()).containsExactly(20, 21, 22, 23, 24);
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void pagePastTheEndIsEmpty() {
+        CatalogPage<Integer> page = CatalogPage.of(ITEMS, 3, 10);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void hugePageNumberDoesNotOverflow() {
+        CatalogPage<Integer> page = CatalogPage.of(ITEMS, Integer.MAX_VALUE, 10);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+
+        page = CatalogPage.of(ITEMS, Integer.MAX_VALUE / 10 + 1, 10);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void emptyCatalogHasNoPages() {
+        CatalogPage<Integer> page = CatalogPage.of(List.of(), 0, 10);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getTotalPages()).isZero();
+        assertThat(page.isHasNext()).isFalse();
+    }
+}
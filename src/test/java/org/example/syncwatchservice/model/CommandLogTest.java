@@ -0,0 +1,76 @@
+package org.example.syncwatchservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandLogTest {
+
+    private final CommandLog log = new CommandLog();
+
+    @Test
+    void emptyLogHasNoEntries() {
+        assertThat(log.entries()).isEmpty();
+        assertThat(log.replay()).isEmpty();
+    }
+
+    @Test
+    void keepsEverythingBeforeTheRingFills() {
+        for (int i = 0; i < 10; i++) {
+            log.record(CommandLog.Type.SEEK, "u", i, 1.0, 7, true, 1_000 + i);
+        }
+
+        List<CommandLog.Entry> entries = log.entries();
+        assertThat(entries).hasSize(10);
+        assertThat(entries).extracting(CommandLog.Entry::sequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(entries.getFirst().position()).isEqualTo(0.0);
+        assertThat(entries.getLast().episodeId()).isEqualTo(7);
+    }
+
+    @Test
+    void wrapsAroundKeepingTheNewestCommandsOldestFirst() {
+        int total = CommandLog.CAPACITY * 3 + 5;
+        for (int i = 0; i < total; i++) {
+            log.record(CommandLog.Type.SEEK, "u" + i, i, 1.0, 1, true, 1_000 + i);
+        }
+
+        List<CommandLog.Entry> entries = log.entries();
+        assertThat(entries).hasSize(CommandLog.CAPACITY - 1);
+        for (int i = 0; i < entries.size(); i++) {
+            long sequence = total - (CommandLog.CAPACITY - 1) + i + 1;
+            CommandLog.Entry entry = entries.get(i);
+            assertThat(entry.sequence()).isEqualTo(sequence);
+            assertThat(entry.userId()).isEqualTo("u" + (sequence - 1));
+            assertThat(entry.position()).isEqualTo(sequence - 1);
+            assertThat(entry.timestamp()).isEqualTo(1_000 + sequence - 1);
+        }
+    }
+
+    @Test
+    void replayReportsJumpsAgainstTheExtrapolatedPosition() {
+        log.record(CommandLog.Type.PLAY, "host", 10.0, 1.0, 1, true, 0);
+        log.record(CommandLog.Type.JOIN, "guest", 12.0, 1.0, 1, true, 2_000);
+        log.record(CommandLog.Type.SEEK, "host", 20.0, 1.0, 1, true, 4_000);
+        log.record(CommandLog.Type.PAUSE, "host", 21.0, 1.0, 1, true, 5_000);
+
+        List<CommandLog.ReplayStep> steps = log.replay();
+        assertThat(steps).hasSize(4);
+
+        assertThat(steps.get(0).expectedPosition()).isNull();
+        assertThat(steps.get(0).positionAfter()).isEqualTo(10.0);
+
+        // Joins do not move playback.
+        assertThat(steps.get(1).expectedPosition()).isEqualTo(12.0);
+        assertThat(steps.get(1).positionAfter()).isEqualTo(10.0);
+        assertThat(steps.get(1).jump()).isNull();
+
+        assertThat(steps.get(2).expectedPosition()).isEqualTo(14.0);
+        assertThat(steps.get(2).jump()).isEqualTo(6.0);
+
+        // A seek leaves the clock stopped at its target.
+        assertThat(steps.get(3).expectedPosition()).isEqualTo(20.0);
+        assertThat(steps.get(3).jump()).isEqualTo(1.0);
+    }
+}
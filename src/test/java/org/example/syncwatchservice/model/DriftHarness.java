@@ -0,0 +1,144 @@
+package org.example.syncwatchservice.model;
+
+import org.example.syncwatchservice.message.PongFrame;
+import org.example.syncwatchservice.message.SyncFrame;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Simulates clients with skewed clocks and jittery links following a playing room, and prints the distribution
+ * of their playback error against the server clock. Clients estimate their clock offset from eight ping/pong
+ * exchanges the way {@code room.html} does (lowest-RTT sample wins) and extrapolate from the sync frame's anchor.
+ * The former behaviour is shown next to it: starting from the frame's position on arrival, and a late joiner
+ * starting from the position of the last action.
+ * <p>
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.main=org.example.syncwatchservice.model.DriftHarness}
+ */
+public final class DriftHarness {
+
+    private static final int CLIENTS = 10_000;
+    private static final int PINGS = 8;
+    private static final long PING_INTERVAL = 2_000;
+    private static final long MAX_CLOCK_SKEW = 5_000;
+    private static final double PLAYBACK_RATE = 1.25;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %-14s %8s %8s %8s %8s%n", "jitter ms", "client", "p50", "p90", "p99", "max");
+        for (double meanJitter : new double[]{5, 30, 100}) {
+            Errors errors = simulate(meanJitter, new SplittableRandom(13));
+            print(meanJitter, "extrapolated", errors.extrapolated);
+            print(meanJitter, "legacy sync", errors.legacySync);
+            print(meanJitter, "legacy join", errors.legacyJoin);
+        }
+    }
+
+    private static Errors simulate(double meanJitter, SplittableRandom random) {
+        Errors errors = new Errors();
+        long start = 1_700_000_000_000L;
+        Room room = new Room("room", "Drift", (Movie) null, "host");
+        room.setPlaybackRate(PLAYBACK_RATE);
+
+        for (int client = 0; client < CLIENTS; client++) {
+            Link link = new Link(random.nextLong(-MAX_CLOCK_SKEW, MAX_CLOCK_SKEW + 1), random.nextLong(10, 150),
+                    meanJitter, random);
+
+            long now = start + client * 10L;
+            long offset = estimateOffset(link, now);
+            now += PINGS * PING_INTERVAL;
+
+            // The host acts, the server re-anchors and broadcasts.
+            room.anchor(random.nextDouble(0, 7_200), true, now);
+            SyncFrame frame = new SyncFrame("play", room.getCurrentTime(), room.getPlaybackRate(),
+                    room.getAnchorTimestamp(), "host", now);
+            long receivedAt = now + link.oneWay();
+
+            // The position is checked some time after the frame arrived.
+            long checkedAt = receivedAt + random.nextLong(0, 10_000);
+            double truth = room.getPositionAt(checkedAt);
+
+            double serverNow = link.clientClock(checkedAt) + offset;
+            double extrapolated = frame.currentTime()
+                    + Math.max(0, serverNow - frame.serverTime()) / 1000.0 * frame.playbackRate();
+            double legacySync = frame.currentTime() + (checkedAt - receivedAt) / 1000.0 * frame.playbackRate();
+
+            // A late joiner used to be sent the position of the last action, however long ago it happened.
+            long joinedAt = now + random.nextLong(0, 60_000);
+            long joinReceivedAt = joinedAt + link.oneWay();
+            long joinCheckedAt = joinReceivedAt + random.nextLong(0, 10_000);
+            double legacyJoin = room.getCurrentTime()
+                    + (joinCheckedAt - joinReceivedAt) / 1000.0 * room.getPlaybackRate();
+
+            errors.extrapolated[client] = errorMillis(extrapolated, truth);
+            errors.legacySync[client] = errorMillis(legacySync, truth);
+            errors.legacyJoin[client] = errorMillis(legacyJoin, room.getPositionAt(joinCheckedAt));
+        }
+        return errors;
+    }
+
+    // Mirrors handlePong in room.html.
+    private static long estimateOffset(Link link, long now) {
+        long bestRtt = Long.MAX_VALUE;
+        long bestOffset = 0;
+        for (int i = 0; i < PINGS; i++, now += PING_INTERVAL) {
+            long clientTime = link.clientClock(now);
+            long serverReceiveTime = now + link.oneWay();
+            long serverSendTime = serverReceiveTime + link.random.nextLong(0, 5);
+            PongFrame pong = new PongFrame(clientTime, serverReceiveTime, serverSendTime);
+            long receivedAt = link.clientClock(serverSendTime + link.oneWay());
+
+            long rtt = (receivedAt - pong.clientTime()) - (pong.serverSendTime() - pong.serverReceiveTime());
+            long offset = ((pong.serverReceiveTime() - pong.clientTime()) + (pong.serverSendTime() - receivedAt)) / 2;
+            if (rtt < bestRtt) {
+                bestRtt = rtt;
+                bestOffset = offset;
+            }
+        }
+        return bestOffset;
+    }
+
+    // Error in milliseconds of media time, measured on the wall clock.
+    private static double errorMillis(double estimated, double truth) {
+        return Math.abs(estimated - truth) * 1000.0 / PLAYBACK_RATE;
+    }
+
+    private static void print(double meanJitter, String client, double[] errors) {
+        Arrays.sort(errors);
+        System.out.printf("%-10.0f %-14s %8.1f %8.1f %8.1f %8.1f%n", meanJitter, client,
+                percentile(errors, 0.50), percentile(errors, 0.90), percentile(errors, 0.99),
+                errors[errors.length - 1]);
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(quantile * (sorted.length - 1)))];
+    }
+
+    private static final class Link {
+        final long skew;
+        final long baseLatency;
+        final double meanJitter;
+        final SplittableRandom random;
+
+        Link(long skew, long baseLatency, double meanJitter, SplittableRandom random) {
+            this.skew = skew;
+            this.baseLatency = baseLatency;
+            this.meanJitter = meanJitter;
+            this.random = random;
+        }
+
+        long clientClock(long serverTime) {
+            return serverTime + skew;
+        }
+
+        // Base latency plus exponentially distributed queueing, drawn independently per direction.
+        long oneWay() {
+            return baseLatency + Math.round(-meanJitter * Math.log(1 - random.nextDouble()));
+        }
+    }
+
+    private static final class Errors {
+        final double[] extrapolated = new double[CLIENTS];
+        final double[] legacySync = new double[CLIENTS];
+        final double[] legacyJoin = new double[CLIENTS];
+    }
+}
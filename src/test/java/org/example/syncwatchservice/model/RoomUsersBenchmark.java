@@ -0,0 +1,113 @@
+package org.example.syncwatchservice.model;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.syncwatchservice.service.IdleReaper;
+import org.example.syncwatchservice.service.RoomRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The time-update path of one member: the former scan of the room's {@code Set<User>} with a
+ * {@code LocalDateTime} per update, against the id-keyed member table on {@link Room} with primitive fields.
+ * The gc profiler should report no allocation for {@link #memberTable} or {@link #memberTableWithReaper}, which
+ * adds the idle reaper touch a time update makes; {@code IdleReaperAllocationTest} asserts the same without JMH.
+ * <p>
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.args="RoomUsersBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomUsersBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int viewers;
+
+    private String[] userIds;
+    private Room room;
+    private IdleReaper idleReaper;
+    private final Set<LegacyUser> legacyUsers = ConcurrentHashMap.newKeySet();
+
+    @Setup
+    public void setUp() {
+        userIds = new String[viewers];
+        room = new Room("room", "Benchmark", (Movie) null, "host");
+        for (int i = 0; i < viewers; i++) {
+            // Fresh strings, as ids arrive deserialized from each frame rather than interned.
+            userIds[i] = new String("user-" + i);
+            room.addUser(new User("user-" + i, "Viewer " + i));
+            legacyUsers.add(new LegacyUser("user-" + i));
+        }
+        idleReaper = new IdleReaper(null, mock(RoomRegistry.class), null, null, new SimpleMeterRegistry(), 1000,
+                Duration.ofSeconds(90), Duration.ofMinutes(30), Duration.ofSeconds(15));
+    }
+
+    @Benchmark
+    public boolean setScan() {
+        String userId = userIds[ThreadLocalRandom.current().nextInt(viewers)];
+        LegacyUser user = legacyUsers.stream()
+                .filter(candidate -> candidate.id.equals(userId))
+                .findFirst()
+                .orElse(null);
+        if (user == null) {
+            return false;
+        }
+        user.currentTime = 1834.5;
+        user.lastSeen = LocalDateTime.now();
+        return true;
+    }
+
+    @Benchmark
+    public boolean memberTable() {
+        User user = room.getUser(userIds[ThreadLocalRandom.current().nextInt(viewers)]);
+        if (user == null) {
+            return false;
+        }
+        user.setCurrentTime(1834.5);
+        user.setLastSeen(System.currentTimeMillis());
+        return true;
+    }
+
+    @Benchmark
+    public boolean memberTableWithReaper() {
+        User user = room.getUser(userIds[ThreadLocalRandom.current().nextInt(viewers)]);
+        if (user == null) {
+            return false;
+        }
+        user.setCurrentTime(1834.5);
+        user.setLastSeen(System.currentTimeMillis());
+        idleReaper.userSeen(room.getId(), user);
+        return true;
+    }
+
+    // The member as it was before the table: compared by id, stamped with a LocalDateTime.
+    private static final class LegacyUser {
+        final String id;
+        volatile double currentTime;
+        volatile LocalDateTime lastSeen;
+
+        LegacyUser(String id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.syncwatchservice.service;
+
+import org.example.syncwatchservice.SyncWatchServiceApplication;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Three clustered nodes in one JVM, each a full application context on its own port.
+ */
+class ClusterNodesTest {
+
+    private static final String SECRET = "cluster-test-secret";
+
+    private static final List<String> urls = new ArrayList<>();
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        List<Integer> ports = List.of(freePort(), freePort(), freePort());
+        ports.forEach(port -> urls.add("http://localhost:" + port));
+
+        for (int i = 0; i < ports.size(); i++) {
+            List<String> others = new ArrayList<>(urls);
+            others.remove(i);
+            nodes.add(new SpringApplicationBuilder(SyncWatchServiceApplication.class).properties(
+                    "server.port=" + ports.get(i),
+                    "app.cluster.enabled=true",
+                    "app.cluster.self=" + urls.get(i),
+                    "app.cluster.nodes=" + String.join(",", others),
+                    "app.cluster.secret=" + SECRET,
+                    // Probed explicitly below, once every node is up.
+                    "app.cluster.probe-interval=3600000",
+                    "app.journal.enabled=false",
+                    "spring.devtools.restart.enabled=false",
+                    "logging.level.org.example.syncwatchservice=INFO",
+                    "logging.level.org.springframework.web=WARN"
+            ).run());
+        }
+        nodes.forEach(node -> node.getBean(ClusterMembership.class).probe());
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void nodesAgreeOnOwnership() {
+        for (int i = 0; i < 200; i++) {
+            String roomId = "room-" + i;
+            List<Integer> owners = new ArrayList<>();
+            for (int node = 0; node < nodes.size(); node++) {
+                ConsistentHashRoomRegistry registry = registry(node);
+                if (registry.isLocal(roomId)) {
+                    owners.add(node);
+                } else {
+                    assertThat(registry.ownerOf(roomId)).isPresent();
+                }
+            }
+            assertThat(owners).as("owners of %s", roomId).hasSize(1);
+            String owner = urls.get(owners.getFirst());
+            for (int node = 0; node < nodes.size(); node++) {
+                assertThat(registry(node).ownerOf(roomId).orElse(urls.get(node))).isEqualTo(owner);
+            }
+        }
+    }
+
+    @Test
+    void commandsAreForwardedToTheOwner() {
+        String roomId = roomOwnedBy(1, "forward-");
+        adopt(1, new Room(roomId, "Forwarded", (Movie) null, "host"));
+
+        boolean joined = nodes.get(0).getBean(RoomCommands.class).join(roomId, new User("alice", "Alice"));
+
+        assertThat(joined).isTrue();
+        assertThat(registry(1).get(roomId)).hasValueSatisfying(room -> assertThat(room.getUser("alice")).isNotNull());
+        assertThat(registry(0).get(roomId)).isEmpty();
+        assertThat(nodes.get(0).getBean(RoomService.class).findRoom(roomId))
+                .hasValueSatisfying(room -> assertThat(room.getUser("alice")).isNotNull());
+    }
+
+    @Test
+    void roomIsHandedOffWhenItsOwnerJoins() {
+        String roomId = roomOwnedBy(2, "handoff-");
+
+        // Node 0 briefly believes it is alone, so it owns and creates the room.
+        registry(0).updateMembers(List.of());
+        assertThat(registry(0).isLocal(roomId)).isTrue();
+        Room room = new Room(roomId, "Handed off", (Movie) null, "host");
+        room.addUser(new User("bob", "Bob"));
+        adopt(0, room);
+
+        nodes.get(0).getBean(ClusterMembership.class).probe();
+
+        awaitTrue(() -> registry(2).get(roomId).isPresent() && registry(0).get(roomId).isEmpty());
+        assertThat(registry(2).get(roomId).orElseThrow().getUser("bob")).isNotNull();
+    }
+
+    @Test
+    void internalEndpointsRejectCallsWithoutTheSecret() {
+        RestTemplate anonymous = new RestTemplate();
+
+        assertThatThrownBy(() -> anonymous.postForEntity(urls.get(0) + "/internal/rooms/handoff", List.of(), Void.class))
+                .isInstanceOfSatisfying(HttpClientErrorException.class,
+                        e -> assertThat(e.getStatusCode().value()).isEqualTo(403));
+    }
+
+    private static ConsistentHashRoomRegistry registry(int node) {
+        return nodes.get(node).getBean(ConsistentHashRoomRegistry.class);
+    }
+
+    private static String roomOwnedBy(int node, String prefix) {
+        for (int i = 0; ; i++) {
+            String roomId = prefix + i;
+            if (registry(node).isLocal(roomId)) {
+                return roomId;
+            }
+        }
+    }
+
+    private static void adopt(int node, Room room) {
+        RoomService roomService = nodes.get(node).getBean(RoomService.class);
+        nodes.get(node).getBean(RoomExecutor.class).submit(room.getId(), () -> {
+            roomService.adoptRoom(room);
+            return null;
+        }).join();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met within 10s").isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
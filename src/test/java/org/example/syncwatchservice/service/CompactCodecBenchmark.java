@@ -0,0 +1,123 @@
+package org.example.syncwatchservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.syncwatchservice.message.PingCommand;
+import org.example.syncwatchservice.message.PlaybackCommand;
+import org.example.syncwatchservice.message.PongFrame;
+import org.example.syncwatchservice.message.SyncFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codec work of one two-second client interval across {@code sockets} connections: every socket sends a time
+ * update and a ping and receives a pong, and every room of {@link #VIEWERS_PER_ROOM} gets one sync frame.
+ * The score is CPU time per interval, so {@code score / 2000 ms} is the share of one core the encoding costs.
+ * <p>
+ * Payload bandwidth per interval is deterministic and printed once per trial; STOMP framing, the same for both
+ * encodings, is not included.
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.args="CompactCodecBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactCodecBenchmark {
+
+    static final int VIEWERS_PER_ROOM = 10;
+    private static final double INTERVAL_SECONDS = 2.0;
+
+    @Param({"5000"})
+    public int sockets;
+
+    @Param({"json", "compact"})
+    public String encoding;
+
+    private ObjectMapper objectMapper;
+    private CompactCodec codec;
+    private String[] userIds;
+    private byte[][] timeUpdates;
+    private byte[][] pings;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        UserHandles userHandles = new UserHandles();
+        codec = new CompactCodec(userHandles);
+
+        userIds = new String[sockets];
+        timeUpdates = new byte[sockets][];
+        pings = new byte[sockets][];
+        for (int i = 0; i < sockets; i++) {
+            userIds[i] = UUID.randomUUID().toString();
+            userHandles.acquire(userIds[i]);
+            double position = 600 + i * 0.37;
+            long clientTime = 1_700_000_000_000L + i;
+            if (isCompact()) {
+                timeUpdates[i] = ByteBuffer.allocate(9).put(CompactCodec.TIME_UPDATE).putDouble(position).array();
+                pings[i] = ByteBuffer.allocate(9).put(CompactCodec.PING).putLong(clientTime).array();
+            } else {
+                timeUpdates[i] = objectMapper.writeValueAsBytes(new PlaybackCommand(userIds[i], position, null));
+                pings[i] = objectMapper.writeValueAsBytes(new PingCommand(userIds[i], clientTime));
+            }
+        }
+
+        long inbound = 0;
+        for (int i = 0; i < sockets; i++) {
+            inbound += timeUpdates[i].length + pings[i].length;
+        }
+        long outbound = sockets * (long) (encode(pong(0)).length + encode(sync(0)).length);
+        System.out.printf("%n%s payload bandwidth at %d sockets: inbound %.1f KiB/s, outbound %.1f KiB/s%n",
+                encoding, sockets, inbound / 1024.0 / INTERVAL_SECONDS, outbound / 1024.0 / INTERVAL_SECONDS);
+    }
+
+    @Benchmark
+    public void interval(Blackhole blackhole) throws IOException {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < sockets; i++) {
+            blackhole.consume(decode(timeUpdates[i], "/app/room/r/timeUpdate", PlaybackCommand.class, userIds[i]));
+            PingCommand ping = (PingCommand) decode(pings[i], "/app/room/r/ping", PingCommand.class, userIds[i]);
+            blackhole.consume(encode(new PongFrame(ping.clientTime(), now, now)));
+        }
+        // Encoded once per room; the broker reuses the bytes for every subscriber.
+        for (int room = 0; room < sockets / VIEWERS_PER_ROOM; room++) {
+            blackhole.consume(encode(sync(room * VIEWERS_PER_ROOM)));
+        }
+    }
+
+    private boolean isCompact() {
+        return encoding.equals("compact");
+    }
+
+    private Object decode(byte[] payload, String destination, Class<?> type, String userId) throws IOException {
+        return isCompact() ? codec.decode(payload, destination, type, userId) : objectMapper.readValue(payload, type);
+    }
+
+    private byte[] encode(Object frame) throws IOException {
+        return isCompact() ? codec.encode(frame) : objectMapper.writeValueAsBytes(frame);
+    }
+
+    private PongFrame pong(int socket) {
+        return new PongFrame(1_700_000_000_000L + socket, 1_700_000_000_050L, 1_700_000_000_051L);
+    }
+
+    private SyncFrame sync(int socket) {
+        return new SyncFrame("play", 1834.52, 1.0, 1_700_000_000_000L, userIds[socket], 1_700_000_000_000L);
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.syncwatchservice.service;
+
+import org.example.syncwatchservice.config.CompactEncodingInterceptor;
+import org.example.syncwatchservice.config.CompactMessageConverter;
+import org.example.syncwatchservice.message.PingCommand;
+import org.example.syncwatchservice.message.PlaybackCommand;
+import org.example.syncwatchservice.message.PongFrame;
+import org.example.syncwatchservice.message.SyncFrame;
+import org.example.syncwatchservice.message.UserCommand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCodecTest {
+
+    private UserHandles userHandles;
+    private CompactCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        userHandles = new UserHandles();
+        codec = new CompactCodec(userHandles);
+    }
+
+    @Test
+    void syncFrameRoundTrips() {
+        int handle = userHandles.acquire("alice");
+
+        byte[] bytes = codec.encode(new SyncFrame("seek", 754.25, 1.5, 1_700_000_000_123L, "alice", 0L));
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertThat(bytes).hasSize(26);
+        assertThat(buffer.get()).isEqualTo(CompactCodec.SYNC);
+        assertThat(buffer.get()).isEqualTo((byte) 2);
+        assertThat(buffer.getInt()).isEqualTo(handle);
+        assertThat(buffer.getDouble()).isEqualTo(754.25);
+        assertThat(buffer.getFloat()).isEqualTo(1.5f);
+        assertThat(buffer.getLong()).isEqualTo(1_700_000_000_123L);
+    }
+
+    @Test
+    void syncFrameOfUserWithoutHandleCarriesZero() {
+        byte[] bytes = codec.encode(new SyncFrame("play", 1.0, 1.0, 5L, "bob", 0L));
+
+        assertThat(ByteBuffer.wrap(bytes, 2, 4).getInt()).isZero();
+    }
+
+    @Test
+    void unknownActionHasNoCompactForm() {
+        assertThat(codec.encode(new SyncFrame("rewind", 1.0, 1.0, 5L, "alice", 0L))).isNull();
+        assertThat(codec.encode("not a frame")).isNull();
+    }
+
+    @Test
+    void pongFrameRoundTrips() {
+        byte[] bytes = codec.encode(new PongFrame(100L, 250L, 251L));
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertThat(bytes).hasSize(25);
+        assertThat(buffer.get()).isEqualTo(CompactCodec.PONG);
+        assertThat(buffer.getLong()).isEqualTo(100L);
+        assertThat(buffer.getLong()).isEqualTo(250L);
+        assertThat(buffer.getLong()).isEqualTo(251L);
+    }
+
+    @Test
+    void decodesInboundFrames() {
+        byte[] timeUpdate = ByteBuffer.allocate(9).put(CompactCodec.TIME_UPDATE).putDouble(42.5).array();
+        byte[] ping = ByteBuffer.allocate(9).put(CompactCodec.PING).putLong(1234L).array();
+        byte[] heartbeat = {CompactCodec.HEARTBEAT};
+
+        assertThat(codec.decode(timeUpdate, "/app/room/r1/timeUpdate", PlaybackCommand.class, "alice"))
+                .isEqualTo(new PlaybackCommand("alice", 42.5, null));
+        assertThat(codec.decode(ping, "/app/room/r1/ping", PingCommand.class, "alice"))
+                .isEqualTo(new PingCommand("alice", 1234L));
+        assertThat(codec.decode(heartbeat, "/app/room/r1/heartbeat", UserCommand.class, "alice"))
+                .isEqualTo(new UserCommand("alice", null));
+    }
+
+    @Test
+    void timeUpdateIsNotAcceptedAsAPlaybackAction() {
+        byte[] timeUpdate = ByteBuffer.allocate(9).put(CompactCodec.TIME_UPDATE).putDouble(42.5).array();
+
+        for (String action : new String[]{"play", "pause", "seek"}) {
+            assertThat(codec.decode(timeUpdate, "/app/room/r1/" + action, PlaybackCommand.class, "alice")).isNull();
+        }
+        assertThat(codec.decode(timeUpdate, null, PlaybackCommand.class, "alice")).isNull();
+    }
+
+    @Test
+    void syncFrameSurvivesEncodeAndDecode() {
+        userHandles.acquire("alice");
+        SyncFrame sent = new SyncFrame("pause", 3_601.125, 0.75, 1_700_000_000_123L, "alice", 1_700_000_000_456L);
+
+        Object received = codec.decodeFrame(codec.encode(sent));
+
+        // Everything but the send timestamp, which the compact form leaves out.
+        assertThat(received).isEqualTo(new SyncFrame("pause", 3_601.125, 0.75, 1_700_000_000_123L, "alice", 0L));
+    }
+
+    @Test
+    void syncFrameOfReleasedHandleDecodesWithoutSender() {
+        userHandles.acquire("alice");
+        byte[] bytes = codec.encode(new SyncFrame("play", 1.0, 1.0, 5L, "alice", 0L));
+        userHandles.release("alice");
+
+        assertThat(codec.decodeFrame(bytes)).isEqualTo(new SyncFrame("play", 1.0, 1.0, 5L, null, 0L));
+    }
+
+    @Test
+    void pongFrameSurvivesEncodeAndDecode() {
+        PongFrame sent = new PongFrame(100L, 250L, 251L);
+
+        assertThat(codec.decodeFrame(codec.encode(sent))).isEqualTo(sent);
+    }
+
+    @Test
+    void clientFramesDecodeThroughTheMessageConverter() {
+        CompactMessageConverter converter = new CompactMessageConverter(codec);
+        // Laid out as publishCompact in room.html writes them.
+        byte[] timeUpdate = ByteBuffer.allocate(9).put(CompactCodec.TIME_UPDATE).putDouble(42.5).array();
+        byte[] ping = ByteBuffer.allocate(9).put(CompactCodec.PING).putLong(1234L).array();
+
+        assertThat(converter.fromMessage(inbound(timeUpdate, "/app/room/r1/timeUpdate"), PlaybackCommand.class))
+                .isEqualTo(new PlaybackCommand("alice", 42.5, null));
+        assertThat(converter.fromMessage(inbound(ping, "/app/room/r1/ping"), PingCommand.class))
+                .isEqualTo(new PingCommand("alice", 1234L));
+        assertThat(converter.fromMessage(inbound(timeUpdate, "/app/room/r1/seek"), PlaybackCommand.class)).isNull();
+    }
+
+    @Test
+    void rejectsTruncatedOrMismatchedFrames() {
+        byte[] truncated = ByteBuffer.allocate(5).put(CompactCodec.PING).putInt(1).array();
+        byte[] ping = ByteBuffer.allocate(9).put(CompactCodec.PING).putLong(1234L).array();
+
+        assertThat(codec.decode(truncated, "/app/room/r1/ping", PingCommand.class, "alice")).isNull();
+        assertThat(codec.decode(ping, "/app/room/r1/ping", PlaybackCommand.class, "alice")).isNull();
+        assertThat(codec.decode(ping, "/app/room/r1/ping", PingCommand.class, null)).isNull();
+        assertThat(codec.decode(new byte[0], "/app/room/r1/ping", PingCommand.class, "alice")).isNull();
+        assertThat(codec.decodeFrame(new byte[]{CompactCodec.SYNC, 0})).isNull();
+    }
+
+    private static Message<byte[]> inbound(byte[] payload, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setSessionAttributes(new HashMap<>(Map.of(CompactEncodingInterceptor.USER_ID_ATTRIBUTE, "alice")));
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.syncwatchservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://a:8082", "http://b:8082", "http://c:8082");
+    private static final List<String> KEYS = IntStream.range(0, 10_000).mapToObj(i -> "room-" + i).toList();
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertThat(new ConsistentHashRing(List.of(), 128).ownerOf("room-1")).isNull();
+    }
+
+    @Test
+    void ownershipDoesNotDependOnNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reversed = new ConsistentHashRing(NODES.reversed(), 128);
+
+        for (String key : KEYS) {
+            assertThat(reversed.ownerOf(key)).isEqualTo(ring.ownerOf(key));
+        }
+    }
+
+    @Test
+    void spreadsKeysAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        KEYS.forEach(key -> counts.merge(ring.ownerOf(key), 1, Integer::sum));
+
+        assertThat(counts).containsOnlyKeys(NODES);
+        // Within 25% of a third each with 128 virtual nodes per member.
+        counts.values().forEach(count -> assertThat(count).isBetween(2_500, 4_200));
+    }
+
+    @Test
+    void removingANodeOnlyMovesItsKeys() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("http://a:8082", "http://b:8082"), 128);
+
+        for (String key : KEYS) {
+            String owner = before.ownerOf(key);
+            if (!owner.equals("http://c:8082")) {
+                assertThat(after.ownerOf(key)).isEqualTo(owner);
+            }
+        }
+    }
+
+    @Test
+    void addingANodeOnlyTakesKeysForItself() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(
+                List.of("http://a:8082", "http://b:8082", "http://c:8082", "http://d:8082"), 128);
+
+        int moved = 0;
+        for (String key : KEYS) {
+            String owner = after.ownerOf(key);
+            if (!owner.equals(before.ownerOf(key))) {
+                assertThat(owner).isEqualTo("http://d:8082");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(1_500, 3_500);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.syncwatchservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The per-update part of a time update: the member lookup and touch, plus the reaper reschedule. Measured with
+ * the thread's allocation counter, so it holds without a JIT warm enough for escape analysis.
+ */
+class IdleReaperAllocationTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void reschedulingATrackedMemberDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        IdleReaper idleReaper = new IdleReaper(null, mock(RoomRegistry.class), null, null, new SimpleMeterRegistry(),
+                1000, Duration.ofSeconds(90), Duration.ofMinutes(30), Duration.ofSeconds(15));
+        Room room = new Room("r1", "Movie night", (Movie) null, "host");
+        String[] userIds = new String[16];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = "user-" + i;
+            room.addUser(new User(userIds[i], "Viewer " + i));
+        }
+
+        touch(idleReaper, room, userIds, WARMUP);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        touch(idleReaper, room, userIds, ITERATIONS);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat((double) allocated / ITERATIONS).as("bytes per update").isLessThan(1.0);
+    }
+
+    private static void touch(IdleReaper idleReaper, Room room, String[] userIds, int times) {
+        for (int i = 0; i < times; i++) {
+            User user = room.getUser(userIds[i & (userIds.length - 1)]);
+            user.setCurrentTime(i);
+            user.setLastSeen(System.currentTimeMillis());
+            idleReaper.userSeen(room.getId(), user);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.syncwatchservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.syncwatchservice.message.UserLeftFrame;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against the wall clock with a 10 ms wheel tick and a 400 ms user timeout; the waits leave well over a
+ * hundred milliseconds of slack on either side of every deadline.
+ */
+class IdleReaperTest {
+
+    private static final Duration USER_TIMEOUT = Duration.ofMillis(400);
+    private static final Duration DISCONNECT_GRACE = Duration.ofMillis(20);
+
+    private final RoomService roomService = mock(RoomService.class);
+    private final RoomRegistry roomRegistry = mock(RoomRegistry.class);
+    private final RoomExecutor roomExecutor = mock(RoomExecutor.class);
+    private final FrameSender frameSender = mock(FrameSender.class);
+    private final Room room = new Room("r1", "Movie night", (Movie) null, "host");
+
+    private IdleReaper idleReaper;
+
+    @BeforeEach
+    void setUp() {
+        room.addUser(new User("alice", "Alice"));
+        when(roomRegistry.get("r1")).thenReturn(Optional.of(room));
+        when(roomService.getRoomById("r1")).thenReturn(Optional.of(room));
+        when(roomService.leaveRoom("r1", "alice")).thenReturn(true);
+        idleReaper = new IdleReaper(roomService, roomRegistry, roomExecutor, frameSender, new SimpleMeterRegistry(),
+                10, USER_TIMEOUT, Duration.ofHours(1), DISCONNECT_GRACE);
+    }
+
+    @Test
+    void silentUserExpiresAfterTheTimeout() throws InterruptedException {
+        idleReaper.userSeen("r1", "alice");
+
+        idleReaper.tick();
+        verify(roomExecutor, never()).execute(anyString(), any());
+
+        Thread.sleep(USER_TIMEOUT.toMillis() + 150);
+        runExpiry();
+
+        verify(roomService).leaveRoom("r1", "alice");
+        verify(frameSender).send("/topic/room/r1/userLeft", new UserLeftFrame("alice"));
+    }
+
+    @Test
+    void activityPushesTheDeadlineBack() throws InterruptedException {
+        idleReaper.userSeen("r1", "alice");
+        Thread.sleep(250);
+        idleReaper.userSeen("r1", "alice");
+        Thread.sleep(250);
+
+        // Past the first deadline, short of the second.
+        idleReaper.tick();
+        verify(roomExecutor, never()).execute(anyString(), any());
+
+        Thread.sleep(300);
+        runExpiry();
+        verify(roomService).leaveRoom("r1", "alice");
+    }
+
+    @Test
+    void disconnectShortensTheDeadlineToTheGracePeriod() throws InterruptedException {
+        idleReaper.userSeen("r1", "alice");
+        idleReaper.userDisconnected("r1", "alice");
+
+        Thread.sleep(DISCONNECT_GRACE.toMillis() + 100);
+        runExpiry();
+
+        verify(roomService).leaveRoom("r1", "alice");
+    }
+
+    @Test
+    void reconnectWithinTheGracePeriodKeepsTheUser() throws InterruptedException {
+        idleReaper.userSeen("r1", "alice");
+        idleReaper.userDisconnected("r1", "alice");
+        idleReaper.userSeen("r1", "alice");
+
+        Thread.sleep(DISCONNECT_GRACE.toMillis() + 100);
+        idleReaper.tick();
+
+        verify(roomExecutor, never()).execute(anyString(), any());
+    }
+
+    @Test
+    void removalRunsOnTheRoomsShard() throws InterruptedException {
+        idleReaper.userSeen("r1", "alice");
+        idleReaper.userDisconnected("r1", "alice");
+        Thread.sleep(DISCONNECT_GRACE.toMillis() + 100);
+
+        idleReaper.tick();
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(roomExecutor).execute(eq("r1"), task.capture());
+        // Nothing is removed on the scheduler thread; only the shard task does.
+        verify(roomService, never()).leaveRoom(anyString(), anyString());
+        task.getValue().run();
+        verify(roomService).leaveRoom("r1", "alice");
+    }
+
+    @Test
+    void leftUserIsNoLongerTracked() throws InterruptedException {
+        idleReaper.userSeen("r1", "alice");
+        idleReaper.userLeft("r1", "alice");
+
+        Thread.sleep(USER_TIMEOUT.toMillis() + 150);
+        idleReaper.tick();
+
+        verify(roomExecutor, never()).execute(anyString(), any());
+    }
+
+    private void runExpiry() {
+        idleReaper.tick();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(roomExecutor).execute(eq("r1"), task.capture());
+        task.getValue().run();
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.syncwatchservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.syncwatchservice.config.JournalProperties;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Journals {@code rooms} rooms (100k by default) with a few members and playback changes each, then reports how
+ * long {@link RoomJournal#recover()} takes from the log alone and from a snapshot plus a short tail, and how many
+ * bytes the journal wrote relative to the entries themselves.
+ * <p>
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.main=org.example.syncwatchservice.service.JournalRecoveryHarness -Dbench.args=100000}
+ */
+public final class JournalRecoveryHarness {
+
+    private static final int USERS_PER_ROOM = 3;
+    private static final int PLAYBACK_PER_ROOM = 10;
+    private static final int RUNS = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final Path directory;
+    private final int roomCount;
+
+    private JournalRecoveryHarness(Path directory, int roomCount) {
+        this.directory = directory;
+        this.roomCount = roomCount;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path directory = Files.createTempDirectory("room-journal-");
+        try {
+            new JournalRecoveryHarness(directory, roomCount).run();
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        InMemoryRoomRegistry registry = new InMemoryRoomRegistry();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RoomJournal journal = journal(registry, meterRegistry);
+        journal.recover();
+
+        long entries = 0;
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room("room-" + i, "Room " + i, (Movie) null, "user-" + i + "-0");
+            registry.put(room);
+            journal.roomCreated(room);
+            entries++;
+            for (int u = 0; u < USERS_PER_ROOM; u++) {
+                User user = new User("user-" + i + "-" + u, "Viewer " + u);
+                room.addUser(user);
+                journal.userJoined(room.getId(), user);
+                entries++;
+            }
+        }
+        for (int step = 0; step < PLAYBACK_PER_ROOM; step++) {
+            for (Room room : registry.localRooms()) {
+                room.setLastActionUserId(room.getHostId());
+                room.anchor(step * 60.0, step % 2 == 0, System.currentTimeMillis());
+                journal.playback(room);
+                entries++;
+            }
+        }
+        awaitWritten(meterRegistry, entries);
+
+        double logBytes = bytesWritten(meterRegistry, "log");
+        System.out.printf("Journaled %d entries for %d rooms: %.1f MiB, %.0f bytes per entry%n",
+                entries, roomCount, logBytes / (1 << 20), logBytes / entries);
+        journal.destroy();
+
+        measureRecovery("log only");
+
+        // Snapshot, then a tail of one playback change for a tenth of the rooms.
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new InMemoryRoomRegistry();
+        journal = journal(registry, meterRegistry);
+        journal.recover().forEach(registry::put);
+        for (Room room : registry.localRooms()) {
+            journal.playback(room);
+        }
+        awaitWritten(meterRegistry, roomCount);
+        journal.snapshot();
+        awaitSnapshot();
+        long tail = 0;
+        for (Room room : registry.localRooms()) {
+            if (tail++ >= roomCount / 10) {
+                break;
+            }
+            room.anchor(room.getCurrentTime() + 5, true, System.currentTimeMillis());
+            journal.playback(room);
+        }
+        awaitWritten(meterRegistry, roomCount + tail);
+        double snapshotBytes = bytesWritten(meterRegistry, "snapshot");
+        double secondLogBytes = bytesWritten(meterRegistry, "log");
+        journal.destroy();
+
+        System.out.printf("Snapshot of %d rooms: %.1f MiB, %.0f bytes per room%n",
+                roomCount, snapshotBytes / (1 << 20), snapshotBytes / roomCount);
+        double totalLogBytes = logBytes + secondLogBytes;
+        System.out.printf("Write amplification: %.2fx (%.1f MiB of log entries plus %.1f MiB of snapshot)%n",
+                (totalLogBytes + snapshotBytes) / totalLogBytes, totalLogBytes / (1 << 20),
+                snapshotBytes / (1 << 20));
+        System.out.printf("Segment files preallocated on disk: %.1f MiB%n", segmentFileBytes() / (1 << 20));
+
+        measureRecovery("snapshot + tail");
+    }
+
+    private void measureRecovery(String label) throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        int recovered = 0;
+        for (int run = 0; run < RUNS; run++) {
+            RoomJournal journal = journal(new InMemoryRoomRegistry(), new SimpleMeterRegistry());
+            long start = System.nanoTime();
+            List<Room> rooms = journal.recover();
+            best = Math.min(best, System.nanoTime() - start);
+            recovered = rooms.size();
+            journal.destroy();
+        }
+        System.out.printf("Recovery (%s): %d rooms in %d ms (best of %d)%n", label, recovered, best / 1_000_000, RUNS);
+    }
+
+    private RoomJournal journal(RoomRegistry registry, SimpleMeterRegistry meterRegistry) {
+        JournalProperties properties = new JournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        // Large enough that the bulk load below never drops an entry.
+        properties.setQueueCapacity(1 << 22);
+        return new RoomJournal(properties, objectMapper, registry, meterRegistry);
+    }
+
+    private static void awaitWritten(SimpleMeterRegistry meterRegistry, long entries) throws InterruptedException {
+        while (meterRegistry.get("journal.entries").counter().count() < entries) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitSnapshot() throws IOException, InterruptedException {
+        while (true) {
+            try (Stream<Path> files = Files.list(directory)) {
+                List<String> names = files.map(path -> path.getFileName().toString()).toList();
+                if (names.stream().anyMatch(name -> name.startsWith("snapshot-") && name.endsWith(".json"))
+                        && names.stream().noneMatch(name -> name.endsWith(".tmp"))) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static double bytesWritten(SimpleMeterRegistry meterRegistry, String kind) {
+        return meterRegistry.get("journal.bytes.written").tag("kind", kind).counter().count();
+    }
+
+    private double segmentFileBytes() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            double total = 0;
+            for (Path path : files.filter(path -> path.getFileName().toString().endsWith(".log")).toList()) {
+                total += Files.size(path);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.syncwatchservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Presence load test: every viewer of a room sends a time update every two seconds. Compares the former
+ * fan-out, which broadcast the full user set on each update, with {@link PresenceAggregator} publishing one delta
+ * per room per tick, counting the messages and payload bytes delivered to the room's subscribers.
+ * <p>
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.main=org.example.syncwatchservice.service.PresenceLoadHarness}
+ */
+public final class PresenceLoadHarness {
+
+    private static final String ROOM_ID = "room";
+    private static final int SECONDS = 60;
+    private static final int UPDATE_INTERVAL_SECONDS = 2;
+
+    public static void main(String[] args) throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        System.out.printf("%8s %14s %14s %14s %14s%n",
+                "viewers", "legacy msg/s", "legacy KiB/s", "delta msg/s", "delta KiB/s");
+        for (int viewers : new int[]{50, 200}) {
+            Traffic legacy = legacy(viewers, objectMapper);
+            Traffic delta = aggregated(viewers, objectMapper);
+            System.out.printf("%8d %14.0f %14.1f %14.0f %14.1f%n", viewers,
+                    legacy.messagesPerSecond(), legacy.kibPerSecond(),
+                    delta.messagesPerSecond(), delta.kibPerSecond());
+        }
+    }
+
+    private static Traffic legacy(int viewers, ObjectMapper objectMapper) throws JsonProcessingException {
+        Room room = room(viewers);
+        Traffic traffic = new Traffic();
+        for (int second = 0; second < SECONDS; second++) {
+            for (User user : room.getUsers()) {
+                if (sendsUpdate(user, second)) {
+                    user.setCurrentTime(second);
+                    // Every update went to every subscriber with the whole user set.
+                    traffic.delivered(objectMapper.writeValueAsBytes(room.getUsers()).length, viewers);
+                }
+            }
+        }
+        return traffic;
+    }
+
+    private static Traffic aggregated(int viewers, ObjectMapper objectMapper) {
+        Room room = room(viewers);
+        Traffic traffic = new Traffic();
+
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate(new MessageChannel() {
+            @Override
+            public boolean send(Message<?> message, long timeout) {
+                traffic.delivered(((byte[]) message.getPayload()).length, viewers);
+                return true;
+            }
+        });
+        messagingTemplate.setMessageConverter(converter);
+
+        RoomService roomService = mock(RoomService.class);
+        when(roomService.getRoomById(ROOM_ID)).thenReturn(Optional.of(room));
+        PresenceAggregator aggregator = new PresenceAggregator(messagingTemplate, roomService);
+
+        for (int second = 0; second < SECONDS; second++) {
+            for (User user : room.getUsers()) {
+                if (sendsUpdate(user, second)) {
+                    user.setCurrentTime(second);
+                    aggregator.userChanged(ROOM_ID, user.getId());
+                }
+            }
+            aggregator.flush();
+        }
+        return traffic;
+    }
+
+    private static Room room(int viewers) {
+        Room room = new Room(ROOM_ID, "Load test", (Movie) null, "user-0");
+        for (int i = 0; i < viewers; i++) {
+            room.addUser(new User("user-" + i, "Viewer " + i));
+        }
+        return room;
+    }
+
+    // Clients start at different times, so their updates are spread over the interval.
+    private static boolean sendsUpdate(User user, int second) {
+        return Math.floorMod(user.getId().hashCode() + second, UPDATE_INTERVAL_SECONDS) == 0;
+    }
+
+    private static final class Traffic {
+        private long messages;
+        private long bytes;
+
+        void delivered(int payloadBytes, int subscribers) {
+            messages += subscribers;
+            bytes += (long) payloadBytes * subscribers;
+        }
+
+        double messagesPerSecond() {
+            return (double) messages / SECONDS;
+        }
+
+        double kibPerSecond() {
+            return bytes / 1024.0 / SECONDS;
+        }
+    }
+}
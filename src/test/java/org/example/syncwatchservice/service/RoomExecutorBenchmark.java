@@ -0,0 +1,88 @@
+package org.example.syncwatchservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.syncwatchservice.model.CommandLog;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Playback commands from many inbound threads applied through {@link RoomExecutor} shards, against taking a
+ * lock on the room on the calling thread. Each command is awaited, so the score is the command round trip a
+ * controller sees, including the shard hop.
+ * <p>
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.args="RoomExecutorBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class RoomExecutorBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int roomCount;
+
+    @Param({"4", "16"})
+    public int shardCount;
+
+    private RoomExecutor roomExecutor;
+    private Room[] rooms;
+
+    @Setup
+    public void setUp() {
+        roomExecutor = new RoomExecutor(shardCount, new SimpleMeterRegistry());
+        rooms = new Room[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            rooms[i] = new Room("room-" + i, "Room " + i, (Movie) null, "host");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        roomExecutor.destroy();
+    }
+
+    @Benchmark
+    public boolean shard() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Room room = rooms[random.nextInt(roomCount)];
+        double position = random.nextDouble(7_200);
+        return roomExecutor.submit(room.getId(), () -> seek(room, position)).join();
+    }
+
+    @Benchmark
+    public boolean lock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Room room = rooms[random.nextInt(roomCount)];
+        double position = random.nextDouble(7_200);
+        synchronized (room) {
+            return seek(room, position);
+        }
+    }
+
+    private static boolean seek(Room room, double position) {
+        long now = System.currentTimeMillis();
+        room.anchor(position, true, now);
+        room.getCommandLog().record(CommandLog.Type.SEEK, "host", position, room.getPlaybackRate(),
+                0, true, now);
+        return room.isPlaying();
+    }
+}
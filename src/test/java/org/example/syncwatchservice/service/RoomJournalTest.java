@@ -0,0 +1,197 @@
+package org.example.syncwatchservice.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.syncwatchservice.config.JournalProperties;
+import org.example.syncwatchservice.model.Movie;
+import org.example.syncwatchservice.model.Room;
+import org.example.syncwatchservice.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+class RoomJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<RoomJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void stopJournals() throws InterruptedException {
+        for (RoomJournal journal : journals) {
+            journal.destroy();
+        }
+    }
+
+    @Test
+    void replaysWhatTheWriterAppended() throws InterruptedException {
+        RoomJournal journal = journal();
+        assertThat(journal.recover()).isEmpty();
+
+        Room room = new Room("r1", "Movie night", (Movie) null, "host");
+        journal.roomCreated(room);
+        journal.userJoined("r1", new User("guest", "Guest"));
+        room.setLastActionUserId("host");
+        room.anchor(42.5, true, 1_000);
+        journal.playback(room);
+        journal.roomCreated(new Room("r2", "Gone", (Movie) null, "host"));
+        journal.roomRemoved("r2");
+        journal.destroy();
+
+        List<Room> rooms = journal().recover();
+
+        assertThat(rooms).extracting(Room::getId).containsExactly("r1");
+        Room recovered = rooms.getFirst();
+        assertThat(recovered.getUsers()).containsKey("guest");
+        assertThat(recovered.getCurrentTime()).isEqualTo(42.5);
+        assertThat(recovered.isPlaying()).isTrue();
+        assertThat(recovered.getAnchorTimestamp()).isEqualTo(1_000);
+    }
+
+    @Test
+    void entryThatFailsToWriteIsCountedAndCoveredBySnapshot() throws Exception {
+        ObjectMapper failing = spy(objectMapper);
+        doThrow(new JsonMappingException(null, "boom")).when(failing).writeValueAsBytes(argThat(item ->
+                item instanceof RoomJournal.Entry entry && "bad".equals(entry.userId())));
+        Room room = new Room("r1", "Movie night", (Movie) null, "host");
+        RoomRegistry roomRegistry = mock(RoomRegistry.class);
+        when(roomRegistry.localRooms()).thenReturn(List.of(room));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RoomJournal journal = journal(failing, roomRegistry, meterRegistry);
+        journal.recover();
+
+        journal.roomCreated(room);
+        room.addUser(new User("bad", "Bad"));
+        journal.userJoined("r1", new User("bad", "Bad"));
+        room.addUser(new User("guest", "Guest"));
+        journal.userJoined("r1", new User("guest", "Guest"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!hasSnapshot() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        journal.destroy();
+
+        assertThat(meterRegistry.get("journal.dropped").tag("reason", "write-failed").counter().count())
+                .isEqualTo(1);
+        List<Room> rooms = journal().recover();
+        assertThat(rooms).extracting(Room::getId).containsExactly("r1");
+        assertThat(rooms.getFirst().getUsers()).containsOnlyKeys("bad", "guest");
+    }
+
+    @Test
+    void stopsAtATruncatedTailAndKeepsEarlierEntries() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeEntry(out, created("r1"));
+        writeEntry(out, joined("r1", "guest"));
+        // A length prefix that runs past the end of the file, as left by a torn write.
+        out.writeInt(10_000);
+        out.write("{\"type\":\"JOINED\"".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve(segmentName(0)), bytes.toByteArray());
+
+        List<Room> rooms = journal().recover();
+
+        assertThat(rooms).extracting(Room::getId).containsExactly("r1");
+        assertThat(rooms.getFirst().getUsers()).containsOnlyKeys("guest");
+    }
+
+    @Test
+    void stopsAtAMalformedEntryAndSkipsLaterSegments() throws IOException {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(first);
+        writeEntry(out, created("r1"));
+        byte[] garbage = "not json".getBytes(StandardCharsets.UTF_8);
+        out.writeInt(garbage.length);
+        out.write(garbage);
+        writeEntry(out, joined("r1", "lost"));
+        Files.write(directory.resolve(segmentName(0)), first.toByteArray());
+
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        writeEntry(new DataOutputStream(second), created("r2"));
+        Files.write(directory.resolve(segmentName(1)), second.toByteArray());
+
+        List<Room> rooms = journal().recover();
+
+        assertThat(rooms).extracting(Room::getId).containsExactly("r1");
+        assertThat(rooms.getFirst().getUsers()).isEmpty();
+        // The writer starts after the damaged segments instead of overwriting them.
+        assertThat(directory.resolve(segmentName(2))).exists();
+        assertThat(directory.resolve(segmentName(1))).hasBinaryContent(second.toByteArray());
+    }
+
+    @Test
+    void negativeLengthEndsReplay() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeEntry(out, created("r1"));
+        out.writeInt(-1);
+        writeEntry(out, created("r2"));
+        Files.write(directory.resolve(segmentName(0)), bytes.toByteArray());
+
+        assertThat(journal().recover()).extracting(Room::getId).containsExactly("r1");
+    }
+
+    private RoomJournal journal() {
+        return journal(objectMapper, mock(RoomRegistry.class), new SimpleMeterRegistry());
+    }
+
+    private RoomJournal journal(ObjectMapper objectMapper, RoomRegistry roomRegistry, MeterRegistry meterRegistry) {
+        JournalProperties properties = new JournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        RoomJournal journal = new RoomJournal(properties, objectMapper, roomRegistry, meterRegistry);
+        journals.add(journal);
+        return journal;
+    }
+
+    private boolean hasSnapshot() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.anyMatch(path -> path.getFileName().toString().matches("snapshot-\\d+\\.json"));
+        }
+    }
+
+    private void writeEntry(DataOutputStream out, RoomJournal.Entry entry) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(entry);
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    private static RoomJournal.Entry created(String roomId) {
+        Room room = new Room(roomId, roomId, (Movie) null, "host");
+        return new RoomJournal.Entry(RoomJournal.Type.CREATED, roomId, room, null, null, null, null, null, null,
+                null);
+    }
+
+    private static RoomJournal.Entry joined(String roomId, String userId) {
+        return new RoomJournal.Entry(RoomJournal.Type.JOINED, roomId, null, userId, userId, null, null, null, null,
+                null);
+    }
+
+    private static String segmentName(long number) {
+        return "journal-" + String.format("%020d", number) + ".log";
+    }
+}
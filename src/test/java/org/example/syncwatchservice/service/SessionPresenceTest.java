@@ -0,0 +1,139 @@
+package org.example.syncwatchservice.service;
+
+import org.example.syncwatchservice.message.PresenceReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SessionPresenceTest {
+
+    private final RoomService roomService = mock(RoomService.class);
+    private final RoomRegistry roomRegistry = mock(RoomRegistry.class);
+    private final RoomExecutor roomExecutor = mock(RoomExecutor.class);
+    private final PresenceAggregator presenceAggregator = mock(PresenceAggregator.class);
+    private final IdleReaper idleReaper = mock(IdleReaper.class);
+    private final ClusterClient clusterClient = mock(ClusterClient.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<ClusterClient> clusterClientProvider = mock(ObjectProvider.class);
+
+    private SessionPresence presence;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(roomExecutor).execute(anyString(), any());
+        when(roomRegistry.ownerOf(anyString())).thenReturn(Optional.empty());
+        when(roomService.setUserConnected(anyString(), anyString(), anyBoolean()))
+                .thenReturn(true);
+        presence = new SessionPresence(roomService, roomRegistry, roomExecutor, presenceAggregator, idleReaper,
+                clusterClientProvider, false);
+    }
+
+    @Test
+    void subscribingToARoomMarksThePrincipalConnected() {
+        presence.onConnect(connect("s1", user("alice")));
+        presence.onSubscribe(subscribe("s1", "/topic/room/r1/sync", user("alice")));
+
+        verify(idleReaper).userSeen("r1", "alice");
+        verify(roomService).setUserConnected("r1", "alice", true);
+        verify(presenceAggregator).userChanged("r1", "alice");
+    }
+
+    @Test
+    void clientClaimedUserHeaderIsIgnored() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId("s1");
+        accessor.setNativeHeader("x-user-id", "alice");
+        presence.onConnect(new SessionConnectEvent(this, message(accessor), null));
+        presence.onSubscribe(subscribe("s1", "/topic/room/r1/sync", null));
+
+        verifyNoInteractions(idleReaper, roomService, presenceAggregator);
+    }
+
+    @Test
+    void userIsDisconnectedOnlyWhenTheirLastSessionCloses() {
+        presence.onConnect(connect("s1", user("alice")));
+        presence.onSubscribe(subscribe("s1", "/topic/room/r1/sync", user("alice")));
+        presence.onConnect(connect("s2", user("alice")));
+        presence.onSubscribe(subscribe("s2", "/topic/room/r1/users", user("alice")));
+
+        presence.onDisconnect(disconnect("s1", user("alice")));
+        verify(idleReaper, never()).userDisconnected("r1", "alice");
+        verify(roomService, never()).setUserConnected("r1", "alice", false);
+
+        presence.onDisconnect(disconnect("s2", user("alice")));
+        verify(idleReaper).userDisconnected("r1", "alice");
+        verify(roomService).setUserConnected("r1", "alice", false);
+    }
+
+    @Test
+    void keepAliveReassertsLocalUsersAndReportsRemoteOnesToTheirOwner() {
+        when(roomRegistry.ownerOf("remote")).thenReturn(Optional.of("http://node-b"));
+        when(clusterClientProvider.getIfAvailable()).thenReturn(clusterClient);
+        presence.onConnect(connect("s1", user("alice")));
+        presence.onSubscribe(subscribe("s1", "/topic/room/r1/sync", user("alice")));
+        presence.onConnect(connect("s2", user("bob")));
+        presence.onSubscribe(subscribe("s2", "/topic/room/remote/sync", user("bob")));
+
+        presence.keepAlive();
+
+        // Once on subscribe, once on keep-alive.
+        verify(idleReaper, times(2)).userSeen("r1", "alice");
+        verify(clusterClient, times(2))
+                .reportPresenceAsync("http://node-b", List.of(new PresenceReport("remote", "bob", true)));
+        verify(idleReaper, never()).userSeen("remote", "bob");
+    }
+
+    private static Principal user(String id) {
+        return () -> id;
+    }
+
+    private SessionConnectEvent connect(String sessionId, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(user);
+        return new SessionConnectEvent(this, message(accessor), user);
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return new SessionSubscribeEvent(this, message(accessor), user);
+    }
+
+    private SessionDisconnectEvent disconnect(String sessionId, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        return new SessionDisconnectEvent(this, message(accessor), sessionId, CloseStatus.NORMAL, user);
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.syncwatchservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.syncwatchservice.message.PlaybackCommand;
+import org.example.syncwatchservice.message.SyncFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One play action end to end at the messaging layer: reading the inbound payload and handing the sync frame to
+ * the broker. The map path is the former {@code Map<String, Object>} payload with casts and a {@code Map.of}
+ * frame converted by {@link SimpMessagingTemplate}; the frame path reads a {@link PlaybackCommand} and sends a
+ * {@link SyncFrame} through {@link FrameSender}, which also attaches the compact encoding.
+ * <p>
+ * Allocation rates come from the gc profiler:
+ * {@code ./mvnw -Pbench test-compile exec:exec -Dbench.args="SyncFrameBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncFrameBenchmark {
+
+    private static final String DESTINATION = "/topic/room/3f2a9c1e-5b7d-4e8a-9f10-2c4d6e8a0b1c/sync";
+    private static final String USER_ID = "9b8e7d6c-5a4f-4e3d-8c2b-1a0f9e8d7c6b";
+
+    private Message<byte[]> inbound;
+    private MappingJackson2MessageConverter converter;
+    private SimpMessagingTemplate messagingTemplate;
+    private FrameSender frameSender;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+
+        // Stands in for the broker channel; the payload is what the broker fans out to subscribers.
+        MessageChannel broker = new MessageChannel() {
+            @Override
+            public boolean send(Message<?> message, long timeout) {
+                return message.getPayload() != null;
+            }
+        };
+        messagingTemplate = new SimpMessagingTemplate(broker);
+        messagingTemplate.setMessageConverter(converter);
+
+        UserHandles userHandles = new UserHandles();
+        userHandles.acquire(USER_ID);
+        frameSender = new FrameSender(messagingTemplate, objectMapper, new CompactCodec(userHandles));
+
+        String json = "{\"userId\":\"" + USER_ID + "\",\"currentTime\":1834.52,\"playbackRate\":1.0}";
+        inbound = MessageBuilder.withPayload(json.getBytes(StandardCharsets.UTF_8)).build();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void mapPayload(Blackhole blackhole) {
+        Map<String, Object> payload = (Map<String, Object>) converter.fromMessage(inbound, Map.class);
+        String userId = (String) payload.get("userId");
+        Double currentTime = ((Number) payload.get("currentTime")).doubleValue();
+        blackhole.consume(userId);
+
+        messagingTemplate.convertAndSend(DESTINATION, Map.of(
+                "action", "play",
+                "currentTime", currentTime,
+                "userId", userId,
+                "timestamp", System.currentTimeMillis()
+        ));
+    }
+
+    @Benchmark
+    public void typedFrame(Blackhole blackhole) {
+        PlaybackCommand command = (PlaybackCommand) converter.fromMessage(inbound, PlaybackCommand.class);
+        blackhole.consume(command.userId());
+
+        long now = System.currentTimeMillis();
+        frameSender.send(DESTINATION, new SyncFrame("play", command.currentTime(),
+                command.effectivePlaybackRate(), now, command.userId(), now));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.syncwatchservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long START = 1_000;
+
+    // 8 buckets on 2 levels cover 64 ticks, so the tests also reach past the top level.
+    private final TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 2, START);
+
+    @Test
+    void expiresKeyWithinOneTickOfItsDeadline() {
+        wheel.schedule("a", START + 35);
+
+        assertThat(wheel.advance(START + 30)).isEmpty();
+        assertThat(wheel.advance(START + 40)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + 1_000)).isEmpty();
+    }
+
+    @Test
+    void postponedDeadlineIsHonoured() {
+        wheel.schedule("a", START + 20);
+        wheel.schedule("a", START + 200);
+
+        assertThat(wheel.advance(START + 190)).isEmpty();
+        assertThat(wheel.advance(START + 200)).containsExactly("a");
+    }
+
+    @Test
+    void earlierDeadlineReplacesTheEntry() {
+        wheel.schedule("a", START + 300);
+        wheel.schedule("a", START + 20);
+
+        assertThat(wheel.advance(START + 20)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + 400)).isEmpty();
+    }
+
+    @Test
+    void cancelledKeyNeverExpires() {
+        wheel.schedule("a", START + 20);
+        wheel.cancel("a");
+
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + 100)).isEmpty();
+    }
+
+    @Test
+    void deadlineBeyondTheTopLevelIsKept() {
+        wheel.schedule("a", START + 5_000);
+
+        assertThat(wheel.advance(START + 4_990)).isEmpty();
+        assertThat(wheel.advance(START + 5_000)).containsExactly("a");
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomSchedules() {
+        Random random = new Random(42);
+        Map<String, Long> deadlines = new HashMap<>();
+
+        for (long now = START; now < START + 20_000; now += TICK) {
+            for (int i = 0; i < 3; i++) {
+                String key = "k" + random.nextInt(200);
+                if (random.nextInt(10) == 0) {
+                    wheel.cancel(key);
+                    deadlines.remove(key);
+                } else {
+                    long deadline = now + 1 + random.nextInt(2_000);
+                    wheel.schedule(key, deadline);
+                    deadlines.put(key, deadline);
+                }
+            }
+
+            long tickEnd = now + TICK;
+            List<String> expired = wheel.advance(tickEnd);
+            for (String key : expired) {
+                assertThat(deadlines.remove(key)).isNotNull().isLessThanOrEqualTo(tickEnd);
+            }
+            // Nothing whose deadline has passed may still be waiting.
+            deadlines.values().forEach(deadline -> assertThat(deadline).isGreaterThan(tickEnd));
+            assertThat(wheel.size()).isEqualTo(deadlines.size());
+        }
+    }
+}